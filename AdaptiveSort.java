@@ -0,0 +1,294 @@
+package datasorter;
+
+/**
+ * Run-adaptive merge sort in the style of TimSort.
+ * Natural ascending / strictly descending runs are detected (descending runs
+ * are reversed), short runs are extended to minRun with binary insertion, and
+ * runs are merged off a stack whose lengths keep the merges balanced. Merges
+ * skip the parts of each run that are already in place and switch to
+ * galloping (exponential search) when one run keeps winning, so nearly sorted
+ * input costs close to O(n).
+ */
+public class AdaptiveSort {
+
+    static final int MIN_MERGE = 32;
+    static final int MIN_GALLOP = 7;
+
+    private final int[] a;
+    private final SortProbe probe;
+    private int[] tmp;
+
+    // pending runs: run i starts at runBase[i] and has length runLen[i]
+    private final int[] runBase = new int[49];
+    private final int[] runLen = new int[49];
+    private int stackSize = 0;
+
+    private AdaptiveSort(int[] a, SortProbe probe) {
+        this.a = a;
+        this.probe = probe;
+    }
+
+    public static void sort(int[] arr) {
+        sort(arr, 0, arr.length);
+    }
+
+    // sorts arr[lo..hi)
+    public static void sort(int[] arr, int lo, int hi) {
+        sort(arr, lo, hi, SortProbe.NONE);
+    }
+
+    public static void sort(int[] arr, int lo, int hi, SortProbe probe) {
+        int remaining = hi - lo;
+        if (remaining < 2) return;
+
+        if (remaining < MIN_MERGE) {
+            int initRunLen = countRunAndMakeAscending(arr, lo, hi, probe);
+            binaryInsertionSort(arr, lo, hi, lo + initRunLen, probe);
+            return;
+        }
+
+        AdaptiveSort ts = new AdaptiveSort(arr, probe);
+        int minRun = minRunLength(remaining);
+        do {
+            int runLength = countRunAndMakeAscending(arr, lo, hi, probe);
+            if (runLength < minRun) {
+                int force = Math.min(remaining, minRun);
+                binaryInsertionSort(arr, lo, lo + force, lo + runLength, probe);
+                runLength = force;
+            }
+            ts.pushRun(lo, runLength);
+            ts.mergeCollapse();
+            lo += runLength;
+            remaining -= runLength;
+        } while (remaining != 0);
+        ts.mergeForceCollapse();
+        if (ts.tmp != null) probe.release(4L * ts.tmp.length);
+    }
+
+    // ========== PRESORTEDNESS ==========
+    // Number of maximal natural runs (ascending or strictly descending);
+    // 1 means the array is already sorted (or reverse sorted).
+    public static int countRuns(int[] arr) {
+        int runs = 0;
+        int i = 0, n = arr.length;
+        while (i < n) {
+            runs++;
+            int j = i + 1;
+            if (j < n && arr[j] < arr[i]) {
+                while (j < n && arr[j] < arr[j - 1]) j++;
+            } else {
+                while (j < n && arr[j] >= arr[j - 1]) j++;
+            }
+            i = j;
+        }
+        return runs;
+    }
+
+    // ========== RUN DETECTION ==========
+    static int countRunAndMakeAscending(int[] a, int lo, int hi, SortProbe probe) {
+        int runHi = lo + 1;
+        if (runHi == hi) return 1;
+        probe.compare();
+        if (a[runHi++] < a[lo]) {
+            while (runHi < hi && a[runHi] < a[runHi - 1]) {
+                probe.compare();
+                runHi++;
+            }
+            reverseRange(a, lo, runHi, probe);
+        } else {
+            while (runHi < hi && a[runHi] >= a[runHi - 1]) {
+                probe.compare();
+                runHi++;
+            }
+        }
+        if (runHi < hi) probe.compare();   // the comparison that ended the run
+        return runHi - lo;
+    }
+
+    private static void reverseRange(int[] a, int lo, int hi, SortProbe probe) {
+        hi--;
+        while (lo < hi) {
+            int t = a[lo];
+            a[lo++] = a[hi];
+            a[hi--] = t;
+            probe.swap();
+        }
+    }
+
+    // a[lo..start) is already sorted; inserts a[start..hi) into it
+    static void binaryInsertionSort(int[] a, int lo, int hi, int start, SortProbe probe) {
+        if (start == lo) start++;
+        for (; start < hi; start++) {
+            int pivot = a[start];
+            int left = lo, right = start;
+            while (left < right) {
+                int mid = (left + right) >>> 1;
+                probe.compare();
+                if (pivot < a[mid]) right = mid;
+                else left = mid + 1;
+            }
+            System.arraycopy(a, left, a, left + 1, start - left);
+            a[left] = pivot;
+            probe.move(start - left + 1);
+        }
+    }
+
+    static int minRunLength(int n) {
+        int r = 0;
+        while (n >= MIN_MERGE) {
+            r |= (n & 1);
+            n >>= 1;
+        }
+        return n + r;
+    }
+
+    // ========== RUN STACK ==========
+    private void pushRun(int base, int len) {
+        runBase[stackSize] = base;
+        runLen[stackSize] = len;
+        stackSize++;
+    }
+
+    // keeps runLen[i-2] > runLen[i-1] + runLen[i] and runLen[i-1] > runLen[i]
+    private void mergeCollapse() {
+        while (stackSize > 1) {
+            int n = stackSize - 2;
+            if (n > 0 && runLen[n - 1] <= runLen[n] + runLen[n + 1]
+                    || n > 1 && runLen[n - 2] <= runLen[n] + runLen[n - 1]) {
+                if (runLen[n - 1] < runLen[n + 1]) n--;
+            } else if (runLen[n] > runLen[n + 1]) {
+                break;
+            }
+            mergeAt(n);
+        }
+    }
+
+    private void mergeForceCollapse() {
+        while (stackSize > 1) {
+            int n = stackSize - 2;
+            if (n > 0 && runLen[n - 1] < runLen[n + 1]) n--;
+            mergeAt(n);
+        }
+    }
+
+    private void mergeAt(int i) {
+        int base1 = runBase[i], len1 = runLen[i];
+        int base2 = runBase[i + 1], len2 = runLen[i + 1];
+
+        runLen[i] = len1 + len2;
+        if (i == stackSize - 3) {
+            runBase[i + 1] = runBase[i + 2];
+            runLen[i + 1] = runLen[i + 2];
+        }
+        stackSize--;
+
+        // elements of run1 not greater than run2's first are already in place
+        int k = gallopRight(a[base2], a, base1, len1, probe);
+        base1 += k;
+        len1 -= k;
+        if (len1 == 0) return;
+
+        // elements of run2 not less than run1's last are already in place
+        len2 = gallopLeft(a[base1 + len1 - 1], a, base2, len2, probe);
+        if (len2 == 0) return;
+
+        mergeLo(base1, len1, base2, len2);
+    }
+
+    // ========== MERGE WITH GALLOPING ==========
+    private void mergeLo(int base1, int len1, int base2, int len2) {
+        if (tmp == null || tmp.length < len1) {
+            if (tmp != null) probe.release(4L * tmp.length);
+            tmp = new int[Math.max(len1, a.length / 2)];
+            probe.allocate(4L * tmp.length);
+        }
+        System.arraycopy(a, base1, tmp, 0, len1);
+        probe.move(len1);
+
+        int c1 = 0, c2 = base2, dest = base1;
+        int end2 = base2 + len2;
+
+        while (c1 < len1 && c2 < end2) {
+            // one element at a time until one run wins MIN_GALLOP times in a row
+            int count1 = 0, count2 = 0;
+            while (c1 < len1 && c2 < end2) {
+                probe.compare();
+                probe.move(1);
+                if (a[c2] < tmp[c1]) {
+                    a[dest++] = a[c2++];
+                    count1 = 0;
+                    if (++count2 >= MIN_GALLOP) break;
+                } else {
+                    a[dest++] = tmp[c1++];
+                    count2 = 0;
+                    if (++count1 >= MIN_GALLOP) break;
+                }
+            }
+
+            // galloping: copy whole blocks found by exponential search
+            while (c1 < len1 && c2 < end2) {
+                int k1 = gallopRight(a[c2], tmp, c1, len1 - c1, probe);
+                System.arraycopy(tmp, c1, a, dest, k1);
+                probe.move(k1 + 1);
+                dest += k1;
+                c1 += k1;
+                if (c1 == len1) break;
+                a[dest++] = a[c2++];
+                if (c2 == end2) break;
+
+                int k2 = gallopLeft(tmp[c1], a, c2, end2 - c2, probe);
+                System.arraycopy(a, c2, a, dest, k2);
+                probe.move(k2 + 1);
+                dest += k2;
+                c2 += k2;
+                if (c2 == end2) break;
+                a[dest++] = tmp[c1++];
+
+                if (k1 < MIN_GALLOP && k2 < MIN_GALLOP) break;
+            }
+        }
+        // leftover run2 elements are already in place
+        if (c1 < len1) {
+            System.arraycopy(tmp, c1, a, dest, len1 - c1);
+            probe.move(len1 - c1);
+        }
+    }
+
+    // number of elements in arr[base..base+len) that are <= key
+    static int gallopRight(int key, int[] arr, int base, int len, SortProbe probe) {
+        int lastOfs = 0, ofs = 1;
+        while (ofs < len && arr[base + ofs - 1] <= key) {
+            probe.compare();
+            lastOfs = ofs;
+            ofs = (ofs << 1) + 1;
+            if (ofs <= 0) ofs = len;
+        }
+        if (ofs > len) ofs = len;
+        while (lastOfs < ofs) {
+            int m = (lastOfs + ofs) >>> 1;
+            probe.compare();
+            if (arr[base + m] <= key) lastOfs = m + 1;
+            else ofs = m;
+        }
+        return lastOfs;
+    }
+
+    // number of elements in arr[base..base+len) that are < key
+    static int gallopLeft(int key, int[] arr, int base, int len, SortProbe probe) {
+        int lastOfs = 0, ofs = 1;
+        while (ofs < len && arr[base + ofs - 1] < key) {
+            probe.compare();
+            lastOfs = ofs;
+            ofs = (ofs << 1) + 1;
+            if (ofs <= 0) ofs = len;
+        }
+        if (ofs > len) ofs = len;
+        while (lastOfs < ofs) {
+            int m = (lastOfs + ofs) >>> 1;
+            probe.compare();
+            if (arr[base + m] < key) lastOfs = m + 1;
+            else ofs = m;
+        }
+        return lastOfs;
+    }
+}
@@ -0,0 +1,43 @@
+package datasorter;
+
+import java.util.Set;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.SettingControl;
+
+/**
+ * The countComparisons setting of SortEvent: "true" in any running
+ * recording makes the recorded sorts count comparisons, see
+ * SortingAlgorithms.recorded(). Off by default.
+ */
+@Name("ccs2300.CountComparisons")
+@Label("Count Comparisons")
+@Description("Whether recorded sorts count their comparisons")
+public final class ComparisonCountSetting extends SettingControl {
+
+    private static volatile boolean on;
+
+    private String value = "false";
+
+    static boolean isOn() {
+        return on;
+    }
+
+    @Override
+    public String combine(Set<String> values) {
+        return values.contains("true") ? "true" : "false";
+    }
+
+    @Override
+    public void setValue(String value) {
+        this.value = value;
+        on = "true".equals(value);
+    }
+
+    @Override
+    public String getValue() {
+        return value;
+    }
+}
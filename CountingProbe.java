@@ -0,0 +1,64 @@
+package datasorter;
+
+/**
+ * SortProbe that tallies operations in longs, so counts do not overflow
+ * on large inputs.
+ */
+public final class CountingProbe implements SortProbe {
+
+    private long comparisons;
+    private long swaps;
+    private long moves;
+    private int depth;
+    private int maxDepth;
+    private long auxBytes;
+    private long peakAuxBytes;
+
+    @Override
+    public void compare() {
+        comparisons++;
+    }
+
+    @Override
+    public void swap() {
+        swaps++;
+    }
+
+    @Override
+    public void move(int count) {
+        moves += count;
+    }
+
+    @Override
+    public void enter() {
+        if (++depth > maxDepth) maxDepth = depth;
+    }
+
+    @Override
+    public void exit() {
+        depth--;
+    }
+
+    @Override
+    public void allocate(long bytes) {
+        auxBytes += bytes;
+        if (auxBytes > peakAuxBytes) peakAuxBytes = auxBytes;
+    }
+
+    @Override
+    public void release(long bytes) {
+        auxBytes -= bytes;
+    }
+
+    public long getComparisons()  { return comparisons; }
+    public long getSwaps()        { return swaps; }
+    public long getMoves()        { return moves; }
+    public int getMaxDepth()      { return maxDepth; }
+    public long getPeakAuxBytes() { return peakAuxBytes; }
+
+    public void reset() {
+        comparisons = swaps = moves = 0;
+        depth = maxDepth = 0;
+        auxBytes = peakAuxBytes = 0;
+    }
+}
@@ -1,6 +1,6 @@
 package datasorter;
 
-import java.util.Random;
+import java.io.IOException;
 import java.util.Scanner;
 
 public class DataGenerator {
@@ -10,9 +10,10 @@ public class DataGenerator {
         System.out.print("Enter number of elements: ");
         int n = sc.nextInt();
 
-        int[] arr = new int[n];
+        int[] arr;
 
         if (choice == 1) {
+            arr = new int[n];
             System.out.println("Enter numbers:");
 
             for (int i = 0; i < n; i++)
@@ -20,17 +21,16 @@ public class DataGenerator {
 
         } else if (choice == 2) {
 
-            Random rand = new Random();
+            long seed = System.nanoTime();
+            arr = WorkloadGenerator.generate(WorkloadGenerator.Distribution.UNIFORM, n, 1000, seed);
 
-            for (int i = 0; i < n; i++)
-                arr[i] = rand.nextInt(1000);
-
-            System.out.println("Generated numbers:");
-
-            for (int num : arr)
-                System.out.print(num + " ");
+            System.out.println("Generated numbers (seed " + seed + "):");
 
-            System.out.println();
+            try {
+                FastIntIO.writeText(System.out, arr, ' ');
+            } catch (IOException e) {
+                System.out.println("Output failed: " + e.getMessage());
+            }
 
         } else {
             System.out.println("Invalid choice!");
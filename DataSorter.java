@@ -1,12 +1,39 @@
 package datasorter;
 
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.Scanner;
 
 public class DataSorter {
 
     static Scanner sc = new Scanner(System.in);
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+
+        // Calibration mode: DataSorter --calibrate  (re-measures and rewrites the tuning profile)
+        if (args.length >= 1 && args[0].equals("--calibrate")) {
+            TuningProfile p = TuningProfile.calibrateAndSave(TuningProfile.defaultPath());
+            System.out.println("Tuning profile: " + p);
+            return;
+        }
+
+        // External sort mode: DataSorter --external <input.bin> <output.bin> [memoryMB]
+        if (args.length >= 3 && args[0].equals("--external")) {
+            long budget = args.length > 3 ? Long.parseLong(args[3]) << 20 : ExternalSort.DEFAULT_MEMORY_BUDGET;
+            ExternalSort.Result result = ExternalSort.sort(Paths.get(args[1]), Paths.get(args[2]), budget);
+            System.out.println("External sort: " + result);
+            return;
+        }
+
+        // Pipeline mode: DataSorter --pipe [--binary-in] [--binary-out] [--algo name] < in > out
+        if (args.length >= 1 && args[0].equals("--pipe")) {
+            runPipeline(args);
+            return;
+        }
+
+        // per-machine thresholds, calibrated on the first interactive start;
+        // the one-shot --external / --pipe runs keep the defaults
+        TuningProfile.loadOrCalibrate().apply();
 
         while (true) {
             System.out.println("\n=== DATA SORTER MENU ===");
@@ -27,7 +54,9 @@ public class DataSorter {
 
             int[] bubbleArr = arr.clone();
             int[] mergeArr = arr.clone();
-            int[] quickArr = arr.clone();
+            int[] introArr = arr.clone();
+            int[] parallelArr = arr.clone();
+            int[] integerArr = arr.clone();
 
             // Bubble Sort timing
             long start = System.nanoTime();
@@ -39,26 +68,69 @@ public class DataSorter {
             SortingAlgorithms.mergeSort(mergeArr, 0, mergeArr.length - 1);
               long mergeTime = System.nanoTime() - start;
 
-            // Quick Sort timing
+            // Intro Sort timing
+            start = System.nanoTime();
+            SortingAlgorithms.introSort(introArr);
+            long introTime = System.nanoTime() - start;
+
+            // Parallel Merge Sort timing
+            start = System.nanoTime();
+            SortingAlgorithms.parallelMergeSort(parallelArr);
+            long parallelTime = System.nanoTime() - start;
+
+            // Counting / Radix Sort timing
             start = System.nanoTime();
-            SortingAlgorithms.quickSort(quickArr, 0, quickArr.length - 1);
-            long quickTime = System.nanoTime() - start;
+            IntegerSorts.sort(integerArr);
+            long integerTime = System.nanoTime() - start;
 
-            System.out.println("\nSorted Output (Quick Sort):");
-            printArray(quickArr);
+            System.out.println("\nSorted Output (Intro Sort):");
+            printArray(introArr);
 
             System.out.println("\n=== Performance Comparison ===");
             System.out.printf("%-15s %-15s\n", "Algorithm", "Time (ns)");
             System.out.printf("%-15s %-15d\n", "Bubble Sort", bubbleTime);
             System.out.printf("%-15s %-15d\n", "Merge Sort", mergeTime);
-            System.out.printf("%-15s %-15d\n", "Quick Sort", quickTime);
+            System.out.printf("%-15s %-15d\n", "Intro Sort", introTime);
+            System.out.printf("%-15s %-15d\n", "Parallel Merge", parallelTime);
+            System.out.printf("%-15s %-15d\n", "Count/Radix", integerTime);
         }
     }
 
     public static void printArray(int[] arr) {
-        for (int num : arr)
-            System.out.print(num + " ");
-        System.out.println();
+        try {
+            FastIntIO.writeText(System.out, arr, ' ');
+        } catch (IOException e) {
+            System.out.println("Output failed: " + e.getMessage());
+        }
+    }
+
+    // Non-interactive sort of stdin to stdout, text or binary on either side
+    static void runPipeline(String[] args) throws IOException {
+        boolean binaryIn = false, binaryOut = false;
+        String algo = "auto";
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--binary-in")) binaryIn = true;
+            else if (args[i].equals("--binary-out")) binaryOut = true;
+            else if (args[i].equals("--algo") && i + 1 < args.length) algo = args[++i];
+            else throw new IllegalArgumentException("Unknown option: " + args[i]);
+        }
+
+        int[] arr = binaryIn ? FastIntIO.readBinary(System.in) : FastIntIO.readText(System.in);
+
+        switch (algo) {
+            case "auto":     IntegerSorts.sort(arr); break;
+            case "intro":    SortingAlgorithms.introSort(arr); break;
+            case "merge":    SortingAlgorithms.mergeSort(arr, 0, arr.length - 1); break;
+            case "parallel": SortingAlgorithms.parallelMergeSort(arr); break;
+            case "adaptive": SortingAlgorithms.adaptiveSort(arr); break;
+            default: throw new IllegalArgumentException("Unknown algorithm: " + algo);
+        }
+
+        if (binaryOut) {
+            FastIntIO.writeBinary(System.out, arr);
+        } else {
+            FastIntIO.writeText(System.out, arr, '\n');
+        }
     }
 }
 
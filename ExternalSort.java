@@ -0,0 +1,256 @@
+package datasorter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * External merge sort for binary int files (32-bit big-endian values, the
+ * same layout DataOutputStream.writeInt produces).
+ *   1. the input is read in chunks that fit the memory budget,
+ *   2. each chunk is sorted in memory with SortingAlgorithms.introSort and
+ *      spilled to a temporary run file,
+ *   3. runs are k-way merged through buffered NIO channels with a min-heap;
+ *      if there are more runs than buffers fit in the budget, the merge is
+ *      done in several passes.
+ */
+public class ExternalSort {
+
+    static final long DEFAULT_MEMORY_BUDGET = 64L << 20;   // 64 MB
+    static final int MIN_RUN_BUFFER = 64 << 10;            // 64 KB per open run
+    static final int IO_BUFFER = 1 << 20;                   // 1 MB for chunk I/O
+
+    public static class Result {
+        public final long values;
+        public final int runs;
+        public final int mergePasses;
+        public final double seconds;
+
+        Result(long values, int runs, int mergePasses, double seconds) {
+            this.values = values;
+            this.runs = runs;
+            this.mergePasses = mergePasses;
+            this.seconds = seconds;
+        }
+
+        public double megabytesPerSecond() {
+            return seconds == 0 ? 0 : (values * 4.0 / (1 << 20)) / seconds;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d values, %d runs, %d merge pass(es), %.3f s, %.1f MB/s",
+                                 values, runs, mergePasses, seconds, megabytesPerSecond());
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: ExternalSort <input.bin> <output.bin> [memoryMB]");
+            return;
+        }
+        long budget = args.length > 2 ? Long.parseLong(args[2]) << 20 : DEFAULT_MEMORY_BUDGET;
+        Result result = sort(Paths.get(args[0]), Paths.get(args[1]), budget);
+        System.out.println("External sort: " + result);
+    }
+
+    public static Result sort(Path input, Path output, long memoryBudget) throws IOException {
+        if (memoryBudget < 2L * IO_BUFFER + MIN_RUN_BUFFER) {
+            throw new IllegalArgumentException("Memory budget too small: " + memoryBudget + " bytes");
+        }
+        long start = System.nanoTime();
+        Path tempDir = output.toAbsolutePath().getParent();
+
+        // every temp file is in runs or merged from its creation on, so a
+        // failure in either phase leaves nothing behind
+        List<Path> runs = new ArrayList<>();
+        List<Path> merged = new ArrayList<>();
+        long values = 0;
+        int runCount, passes = 0;
+        try {
+            // ---------- phase 1: sorted runs ----------
+            // the chunk shares the budget with the read buffer and the
+            // buffer of the run writer
+            int chunkInts = (int) Math.min(Integer.MAX_VALUE - 8, (memoryBudget - 2L * IO_BUFFER) / 4);
+            try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ)) {
+                if (in.size() % 4 != 0) {
+                    throw new IOException("Input size is not a multiple of 4 bytes: " + input);
+                }
+                chunkInts = (int) Math.min(chunkInts, Math.max(1, in.size() / 4));
+                int[] chunk = new int[chunkInts];
+                ByteBuffer buf = ByteBuffer.allocateDirect(IO_BUFFER);
+                buf.flip();
+                int n;
+                while ((n = readInts(in, buf, chunk)) > 0) {
+                    SortingAlgorithms.introSort(chunk, 0, n - 1, SortProbe.NONE);
+                    Path run = Files.createTempFile(tempDir, "extsort-run", ".bin");
+                    runs.add(run);
+                    try (RunWriter w = new RunWriter(run, IO_BUFFER)) {
+                        for (int i = 0; i < n; i++) w.write(chunk[i]);
+                    }
+                    values += n;
+                }
+            }
+
+            // ---------- phase 2: k-way merge ----------
+            runCount = runs.size();
+            int maxFanIn = (int) Math.max(2, Math.min(1024, memoryBudget / MIN_RUN_BUFFER - 1));
+            if (runs.isEmpty()) {
+                Files.write(output, new byte[0]);
+            }
+            while (runs.size() > maxFanIn) {
+                for (int i = 0; i < runs.size(); i += maxFanIn) {
+                    List<Path> group = runs.subList(i, Math.min(runs.size(), i + maxFanIn));
+                    Path out = Files.createTempFile(tempDir, "extsort-run", ".bin");
+                    merged.add(out);
+                    merge(group, out, memoryBudget);
+                    deleteAll(group);
+                }
+                runs = merged;
+                merged = new ArrayList<>();
+                passes++;
+            }
+            if (!runs.isEmpty()) {
+                merge(runs, output, memoryBudget);
+                passes++;
+            }
+        } finally {
+            deleteAll(runs);
+            deleteAll(merged);
+        }
+        return new Result(values, runCount, passes, (System.nanoTime() - start) / 1e9);
+    }
+
+    // fills dst from the channel, returns the number of ints read (0 at EOF)
+    private static int readInts(FileChannel in, ByteBuffer buf, int[] dst) throws IOException {
+        int n = 0;
+        while (n < dst.length) {
+            if (buf.remaining() < 4) {
+                buf.compact();
+                int read = in.read(buf);
+                buf.flip();
+                if (read < 0 && buf.remaining() < 4) break;
+            }
+            while (n < dst.length && buf.remaining() >= 4) {
+                dst[n++] = buf.getInt();
+            }
+        }
+        return n;
+    }
+
+    private static void merge(List<Path> runs, Path output, long memoryBudget) throws IOException {
+        int k = runs.size();
+        int bufferBytes = (int) Math.max(MIN_RUN_BUFFER, Math.min(IO_BUFFER, memoryBudget / (k + 1)));
+        bufferBytes &= ~3;
+        RunReader[] readers = new RunReader[k];
+        try (RunWriter out = new RunWriter(output, bufferBytes)) {
+            // heap of reader indices ordered by their current value
+            int[] heap = new int[k];
+            int size = 0;
+            for (int i = 0; i < k; i++) {
+                readers[i] = new RunReader(runs.get(i), bufferBytes);
+                if (readers[i].advance()) heap[size++] = i;
+            }
+            for (int i = size / 2 - 1; i >= 0; i--) siftDown(heap, size, i, readers);
+
+            while (size > 0) {
+                RunReader top = readers[heap[0]];
+                out.write(top.current);
+                if (!top.advance()) {
+                    heap[0] = heap[--size];
+                }
+                siftDown(heap, size, 0, readers);
+            }
+        } finally {
+            for (RunReader r : readers) {
+                if (r != null) r.close();
+            }
+        }
+    }
+
+    private static void siftDown(int[] heap, int size, int i, RunReader[] readers) {
+        int item = heap[i];
+        int value = readers[item].current;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) break;
+            if (child + 1 < size && readers[heap[child + 1]].current < readers[heap[child]].current) child++;
+            if (readers[heap[child]].current >= value) break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = item;
+    }
+
+    private static void deleteAll(List<Path> paths) throws IOException {
+        for (Path p : paths) Files.deleteIfExists(p);
+    }
+
+    // ---------- buffered run reader ----------
+    static class RunReader implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buf;
+        int current;
+
+        RunReader(Path path, int bufferBytes) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+            buf = ByteBuffer.allocateDirect(bufferBytes);
+            buf.flip();
+        }
+
+        boolean advance() throws IOException {
+            if (buf.remaining() < 4) {
+                buf.compact();
+                while (buf.position() < 4) {
+                    if (channel.read(buf) < 0) {
+                        buf.flip();
+                        return false;
+                    }
+                }
+                buf.flip();
+            }
+            current = buf.getInt();
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    // ---------- buffered run writer ----------
+    static class RunWriter implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buf;
+
+        RunWriter(Path path, int bufferBytes) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.WRITE,
+                                       StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+            buf = ByteBuffer.allocateDirect(bufferBytes);
+        }
+
+        void write(int value) throws IOException {
+            if (buf.remaining() < 4) flush();
+            buf.putInt(value);
+        }
+
+        private void flush() throws IOException {
+            buf.flip();
+            while (buf.hasRemaining()) channel.write(buf);
+            buf.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * Search index over a sorted int array stored in Eytzinger (BFS) order:
+ * the root at 1, the children of node k at 2k and 2k+1. The first levels of
+ * every search touch the same few cache lines, and each step picks the next
+ * node with a conditional move instead of a branch.
+ *
+ * Java has no prefetch instruction, so instead of prefetching ahead inside
+ * one search, searchAll walks a group of queries down the tree in lock-step:
+ * the group's loads are independent, so their cache misses overlap rather
+ * than being paid one after another.
+ */
+public class EytzingerIndex {
+
+    // queries walked down the tree together by searchAll
+    static final int GROUP = 16;
+
+    private final int[] tree;       // tree[1..n], tree[0] unused
+    private final int[] sortedPos;  // tree index -> index in the sorted input
+    private final int n;
+    private final int levels;
+
+    // sorted must be in ascending order
+    public EytzingerIndex(int[] sorted) {
+        n = sorted.length;
+        tree = new int[n + 1];
+        sortedPos = new int[n + 1];
+        levels = n == 0 ? 0 : 32 - Integer.numberOfLeadingZeros(n);
+        // an in-order walk of the implicit tree visits nodes in sorted order
+        int next = 0;
+        int k = 1;
+        int[] stack = new int[levels + 1];
+        int top = 0;
+        while (top > 0 || k <= n) {
+            if (k <= n) {
+                stack[top++] = k;
+                k = 2 * k;
+            } else {
+                k = stack[--top];
+                tree[k] = sorted[next];
+                sortedPos[k] = next++;
+                k = 2 * k + 1;
+            }
+        }
+    }
+
+    public int size() {
+        return n;
+    }
+
+    // index in the sorted input of the first occurrence of key, or -1
+    public int search(int key) {
+        int k = 1;
+        while (k <= n) {
+            k = 2 * k + (tree[k] < key ? 1 : 0);
+        }
+        return resolve(k, key);
+    }
+
+    // searches every key; result[i] is search(keys[i])
+    public int[] searchAll(int[] keys) {
+        int[] result = new int[keys.length];
+        int[] k = new int[GROUP];
+        for (int g = 0; g < keys.length; g += GROUP) {
+            int count = Math.min(GROUP, keys.length - g);
+            for (int q = 0; q < count; q++) k[q] = 1;
+            // every search ends after levels or levels+1 steps
+            for (int level = 0; level <= levels; level++) {
+                for (int q = 0; q < count; q++) {
+                    int kk = k[q];
+                    if (kk <= n) {
+                        k[q] = 2 * kk + (tree[kk] < keys[g + q] ? 1 : 0);
+                    }
+                }
+            }
+            for (int q = 0; q < count; q++) {
+                result[g + q] = resolve(k[q], keys[g + q]);
+            }
+        }
+        return result;
+    }
+
+    // The path's right turns end in a run of 1 bits; dropping them (plus the
+    // final left turn) yields the lower-bound node, 0 when key is larger than
+    // every element.
+    private int resolve(int k, int key) {
+        k >>>= Integer.numberOfTrailingZeros(~k) + 1;
+        return k != 0 && tree[k] == key ? sortedPos[k] : -1;
+    }
+}
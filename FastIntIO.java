@@ -0,0 +1,232 @@
+package datasorter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Bulk int input / output without Scanner or per-element print calls.
+ *   - text : decimal ints separated by any non-digit bytes (spaces, newlines,
+ *            commas), parsed byte by byte from a large buffer or a mapped file
+ *   - binary : 32-bit big-endian ints, the same layout ExternalSort uses
+ * Output goes through TextWriter, which formats digits straight into a byte
+ * buffer and writes it out in large blocks.
+ */
+public class FastIntIO {
+
+    static final int BUFFER_SIZE = 1 << 16;
+    // magnitude of Integer.MIN_VALUE; digits are accumulated in a long and
+    // anything beyond int range is rejected
+    static final long INT_LIMIT = 1L << 31;
+
+    // ========== TEXT INPUT ==========
+    public static int[] readText(InputStream in) throws IOException {
+        byte[] buf = new byte[BUFFER_SIZE];
+        IntList out = new IntList();
+        long value = 0;
+        boolean inNumber = false, negative = false;
+        int len;
+        while ((len = in.read(buf, 0, buf.length)) > 0) {
+            for (int i = 0; i < len; i++) {
+                int b = buf[i];
+                if (b >= '0' && b <= '9') {
+                    value = value * 10 + (b - '0');
+                    if (value > INT_LIMIT) throw outOfRange(value, negative);
+                    inNumber = true;
+                } else {
+                    if (inNumber) {
+                        out.add(toInt(value, negative));
+                        value = 0;
+                        inNumber = false;
+                    }
+                    negative = b == '-';
+                }
+            }
+        }
+        if (inNumber) out.add(toInt(value, negative));
+        return out.toArray();
+    }
+
+    public static int[] readText(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size > Integer.MAX_VALUE) {
+                try (InputStream in = Files.newInputStream(file)) {
+                    return readText(in);
+                }
+            }
+            MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            // about one int per 4 bytes of text is a reasonable first guess
+            IntList out = new IntList((int) Math.min(Integer.MAX_VALUE - 8, size / 4 + 16));
+            long value = 0;
+            boolean inNumber = false, negative = false;
+            for (int i = 0, n = (int) size; i < n; i++) {
+                int b = map.get(i);
+                if (b >= '0' && b <= '9') {
+                    value = value * 10 + (b - '0');
+                    if (value > INT_LIMIT) throw outOfRange(value, negative);
+                    inNumber = true;
+                } else {
+                    if (inNumber) {
+                        out.add(toInt(value, negative));
+                        value = 0;
+                        inNumber = false;
+                    }
+                    negative = b == '-';
+                }
+            }
+            if (inNumber) out.add(toInt(value, negative));
+            return out.toArray();
+        }
+    }
+
+    private static int toInt(long magnitude, boolean negative) {
+        if (!negative && magnitude == INT_LIMIT) throw outOfRange(magnitude, false);
+        return (int) (negative ? -magnitude : magnitude);
+    }
+
+    private static NumberFormatException outOfRange(long magnitude, boolean negative) {
+        return new NumberFormatException("Value out of int range: " + (negative ? "-" : "") + magnitude);
+    }
+
+    // ========== BINARY INPUT ==========
+    public static int[] readBinary(InputStream in) throws IOException {
+        byte[] buf = new byte[BUFFER_SIZE];
+        ByteBuffer bb = ByteBuffer.wrap(buf);
+        IntList out = new IntList();
+        int filled = 0, len;
+        while ((len = in.read(buf, filled, buf.length - filled)) > 0) {
+            filled += len;
+            int whole = filled & ~3;
+            for (int i = 0; i < whole; i += 4) out.add(bb.getInt(i));
+            // keep a partial int for the next read
+            System.arraycopy(buf, whole, buf, 0, filled - whole);
+            filled -= whole;
+        }
+        if (filled != 0) throw new IOException("Binary input ends with a partial int");
+        return out.toArray();
+    }
+
+    public static int[] readBinary(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size % 4 != 0) throw new IOException("File size is not a multiple of 4 bytes: " + file);
+            if (size / 4 > Integer.MAX_VALUE - 8) throw new IOException("Too many values for an int[]: " + file);
+            int[] arr = new int[(int) (size / 4)];
+            int pos = 0;
+            for (long offset = 0; offset < size; ) {
+                long chunk = Math.min(size - offset, 1L << 30);
+                MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, offset, chunk);
+                int count = (int) (chunk / 4);
+                map.asIntBuffer().get(arr, pos, count);
+                pos += count;
+                offset += chunk;
+            }
+            return arr;
+        }
+    }
+
+    // ========== BINARY OUTPUT ==========
+    public static void writeBinary(OutputStream out, int[] arr) throws IOException {
+        byte[] buf = new byte[BUFFER_SIZE];
+        ByteBuffer bb = ByteBuffer.wrap(buf);
+        int i = 0;
+        while (i < arr.length) {
+            int count = Math.min(arr.length - i, BUFFER_SIZE / 4);
+            bb.clear();
+            bb.asIntBuffer().put(arr, i, count);
+            out.write(buf, 0, count * 4);
+            i += count;
+        }
+        out.flush();
+    }
+
+    // ========== TEXT OUTPUT ==========
+    // Writes every value followed by the separator, then a newline unless
+    // the separator already ended the line
+    public static void writeText(OutputStream out, int[] arr, char separator) throws IOException {
+        TextWriter w = new TextWriter(out);
+        for (int v : arr) {
+            w.writeInt(v);
+            w.writeByte(separator);
+        }
+        if (separator != '\n' || arr.length == 0) w.writeByte('\n');
+        w.flush();
+    }
+
+    public static class TextWriter {
+        private final OutputStream out;
+        private final byte[] buf = new byte[BUFFER_SIZE];
+        private final byte[] digits = new byte[11];
+        private int pos = 0;
+
+        public TextWriter(OutputStream out) {
+            this.out = out;
+        }
+
+        public void writeInt(int v) throws IOException {
+            if (pos + 11 > buf.length) flushBuffer();
+            if (v == Integer.MIN_VALUE) {
+                for (byte b : "-2147483648".getBytes()) buf[pos++] = b;
+                return;
+            }
+            if (v < 0) {
+                buf[pos++] = '-';
+                v = -v;
+            }
+            int d = 0;
+            do {
+                digits[d++] = (byte) ('0' + v % 10);
+                v /= 10;
+            } while (v != 0);
+            while (d > 0) buf[pos++] = digits[--d];
+        }
+
+        public void writeByte(int b) throws IOException {
+            if (pos == buf.length) flushBuffer();
+            buf[pos++] = (byte) b;
+        }
+
+        private void flushBuffer() throws IOException {
+            out.write(buf, 0, pos);
+            pos = 0;
+        }
+
+        public void flush() throws IOException {
+            flushBuffer();
+            out.flush();
+        }
+    }
+
+    // growable primitive int list
+    static class IntList {
+        int[] data;
+        int size;
+
+        IntList() {
+            this(1024);
+        }
+
+        IntList(int capacity) {
+            data = new int[Math.max(16, capacity)];
+        }
+
+        void add(int v) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, (int) Math.min(Integer.MAX_VALUE - 8, data.length * 2L));
+            }
+            data[size++] = v;
+        }
+
+        int[] toArray() {
+            return size == data.length ? data : Arrays.copyOf(data, size);
+        }
+    }
+}
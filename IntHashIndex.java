@@ -0,0 +1,84 @@
+/**
+ * Value -> positions index over an int array, built once so that repeated
+ * lookups cost O(1) instead of a LinearSearch scan each.
+ * Open addressing with linear probing over a power-of-two table of
+ * primitive ints (no boxing). Each distinct value owns one slot holding its
+ * count and the offset of its positions, which are stored contiguously in
+ * ascending order in one shared array.
+ */
+public class IntHashIndex {
+
+    private final int[] keys;
+    private final int[] counts;     // 0 marks an empty slot
+    private final int[] starts;     // offset of the slot's run in positions
+    private final int[] positions;
+    private final int mask;
+    private final int shift;
+    private int distinct;
+
+    public IntHashIndex(int[] arr) {
+        // at most half full even if every value is distinct
+        int capacity = Integer.highestOneBit(Math.max(2, arr.length) * 2 - 1) * 2;
+        keys = new int[capacity];
+        counts = new int[capacity];
+        starts = new int[capacity];
+        positions = new int[arr.length];
+        mask = capacity - 1;
+        shift = 32 - Integer.numberOfTrailingZeros(capacity);
+
+        for (int v : arr) {
+            int slot = slotOf(v);
+            if (counts[slot]++ == 0) {
+                keys[slot] = v;
+                distinct++;
+            }
+        }
+        int offset = 0;
+        for (int s = 0; s < capacity; s++) {
+            starts[s] = offset;
+            offset += counts[s];
+        }
+        // scanning the input in order leaves every run sorted
+        int[] fill = starts.clone();
+        for (int i = 0; i < arr.length; i++) {
+            positions[fill[slotOf(arr[i])]++] = i;
+        }
+    }
+
+    // slot holding key, or the empty slot where it would be inserted
+    private int slotOf(int key) {
+        int slot = (key * 0x9E3779B9) >>> shift;
+        while (counts[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    public boolean contains(int key) {
+        return counts[slotOf(key)] != 0;
+    }
+
+    // same result as LinearSearch.linearSearch: first index of key, or -1
+    public int indexOf(int key) {
+        int slot = slotOf(key);
+        return counts[slot] != 0 ? positions[starts[slot]] : -1;
+    }
+
+    public int count(int key) {
+        return counts[slotOf(key)];
+    }
+
+    // every index holding key, in ascending order
+    public int[] indexOfAll(int key) {
+        int slot = slotOf(key);
+        return java.util.Arrays.copyOfRange(positions, starts[slot], starts[slot] + counts[slot]);
+    }
+
+    public int size() {
+        return positions.length;
+    }
+
+    public int distinctValues() {
+        return distinct;
+    }
+}
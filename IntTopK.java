@@ -0,0 +1,64 @@
+package datasorter;
+
+/**
+ * Streaming top-k: keeps the k smallest values seen so far in a bounded
+ * max-heap stored in a plain int[], so offers cost O(log k) and nothing is
+ * boxed. Values larger than the current k-th smallest are rejected in O(1).
+ */
+public class IntTopK {
+
+    private final int[] heap;
+    private int size;
+
+    public IntTopK(int k) {
+        if (k < 0) throw new IllegalArgumentException("k must be >= 0: " + k);
+        heap = new int[k];
+    }
+
+    public void offer(int value) {
+        if (size < heap.length) {
+            // sift up
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (heap[parent] >= value) break;
+                heap[i] = heap[parent];
+                i = parent;
+            }
+            heap[i] = value;
+        } else if (size > 0 && value < heap[0]) {
+            siftDown(value);
+        }
+    }
+
+    // replaces the root (current maximum) with value
+    private void siftDown(int value) {
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) break;
+            if (child + 1 < size && heap[child + 1] > heap[child]) child++;
+            if (heap[child] <= value) break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // largest value kept, i.e. the k-th smallest seen once k values arrived
+    public int peekMax() {
+        if (size == 0) throw new IllegalStateException("empty");
+        return heap[0];
+    }
+
+    public int[] toSortedArray() {
+        int[] out = new int[size];
+        System.arraycopy(heap, 0, out, 0, size);
+        SortingAlgorithms.heapSort(out, 0, size - 1);
+        return out;
+    }
+}
@@ -0,0 +1,120 @@
+package datasorter;
+
+/**
+ * Non-comparison sorts for int data.
+ *   - countingSort : O(n + range), for small value ranges such as 0-999
+ *   - radixSort    : LSD radix sort with 8- or 11-bit digits, handles negatives
+ *   - sort         : scans min/max once and picks the cheapest path
+ */
+public class IntegerSorts {
+
+    // below this size a comparison sort beats the histogram set-up cost
+    // (default; TuningProfile.apply() overwrites it with the calibrated value)
+    static int radixThreshold = TuningProfile.DEFAULT_RADIX_THRESHOLD;
+    // counting sort is used while range <= n * COUNTING_RANGE_FACTOR
+    static final int COUNTING_RANGE_FACTOR = 4;
+    // absolute cap on the counting sort histogram (4 MB of counts)
+    static final int MAX_COUNTING_RANGE = 1 << 20;
+    // from this size on 11-bit digits (3 passes) beat 8-bit digits (4 passes)
+    static final int WIDE_DIGIT_THRESHOLD = 1 << 16;
+
+    // ========== DISPATCHER ==========
+    public static void sort(int[] arr) {
+        int n = arr.length;
+        if (n < radixThreshold) {
+            SortingAlgorithms.introSort(arr, 0, n - 1, SortProbe.NONE);
+            return;
+        }
+        int min = arr[0], max = arr[0];
+        for (int i = 1; i < n; i++) {
+            int v = arr[i];
+            if (v < min) min = v;
+            else if (v > max) max = v;
+        }
+        long range = (long) max - min + 1;
+        if (range <= MAX_COUNTING_RANGE && range <= (long) n * COUNTING_RANGE_FACTOR) {
+            countingSort(arr, min, max);
+        } else {
+            radixSort(arr, n >= WIDE_DIGIT_THRESHOLD ? 11 : 8);
+        }
+    }
+
+    // ========== COUNTING SORT ==========
+    public static void countingSort(int[] arr) {
+        if (arr.length < 2) return;
+        int min = arr[0], max = arr[0];
+        for (int v : arr) {
+            if (v < min) min = v;
+            if (v > max) max = v;
+        }
+        countingSort(arr, min, max);
+    }
+
+    // all values must lie in [min, max]
+    public static void countingSort(int[] arr, int min, int max) {
+        long range = (long) max - min + 1;
+        if (range > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Value range too large for counting sort: " + range);
+        }
+        int[] counts = new int[(int) range];
+        for (int v : arr) {
+            counts[v - min]++;
+        }
+        int k = 0;
+        for (int i = 0; i < counts.length; i++) {
+            int value = min + i;
+            for (int c = counts[i]; c > 0; c--) {
+                arr[k++] = value;
+            }
+        }
+    }
+
+    // ========== LSD RADIX SORT ==========
+    public static void radixSort(int[] arr) {
+        radixSort(arr, arr.length >= WIDE_DIGIT_THRESHOLD ? 11 : 8);
+    }
+
+    // digitBits between 1 and 16; the sign bit is flipped so negatives sort first
+    public static void radixSort(int[] arr, int digitBits) {
+        int n = arr.length;
+        if (n < 2) return;
+        if (digitBits < 1 || digitBits > 16) {
+            throw new IllegalArgumentException("digitBits must be in 1..16: " + digitBits);
+        }
+        int radix = 1 << digitBits;
+        int mask = radix - 1;
+        int passes = (32 + digitBits - 1) / digitBits;
+
+        // one scan builds every pass's histogram
+        int[][] counts = new int[passes][radix + 1];
+        for (int v : arr) {
+            int key = v ^ Integer.MIN_VALUE;
+            for (int p = 0; p < passes; p++) {
+                counts[p][((key >>> (p * digitBits)) & mask) + 1]++;
+            }
+        }
+
+        int[] src = arr;
+        int[] dst = new int[n];
+        for (int p = 0; p < passes; p++) {
+            int[] offsets = counts[p];
+            // a digit shared by every element leaves the order unchanged
+            if (offsets[((src[0] ^ Integer.MIN_VALUE) >>> (p * digitBits) & mask) + 1] == n) {
+                continue;
+            }
+            for (int d = 0; d < radix; d++) {
+                offsets[d + 1] += offsets[d];
+            }
+            int shift = p * digitBits;
+            for (int v : src) {
+                dst[offsets[((v ^ Integer.MIN_VALUE) >>> shift) & mask]++] = v;
+            }
+            int[] temp = src;
+            src = dst;
+            dst = temp;
+        }
+        if (src != arr) {
+            System.arraycopy(src, 0, arr, 0, n);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package datasorter;
+
+import java.util.Arrays;
+
+/**
+ * Sorting records stored as columns (struct of arrays) by a primitive key,
+ * without boxing rows into objects or calling a comparator.
+ *   - order : stable sort of an int[], long[] or double[] key column that
+ *             returns the permutation instead of moving the keys:
+ *             keys[order[0]] <= keys[order[1]] <= ... and equal keys keep
+ *             their input order
+ *   - apply : gathers one payload column through the permutation in a
+ *             single pass, out[i] = column[order[i]]
+ * Keys are mapped to unsigned longs that sort in the same order (sign bit
+ * flipped; negative doubles fully inverted, so doubles follow
+ * Double.compare with -0.0 before 0.0 and NaN last) and sorted together
+ * with the index array by an LSD radix sort with 11-bit digits: 3 passes
+ * for int keys, 6 for long and double. LSD radix sort is stable by
+ * construction.
+ */
+public class KeyIndexSort {
+
+    static final int DIGIT_BITS = 11;
+    // below this size a stable insertion sort beats the histograms
+    static final int SMALL_ARRAY = 32;
+
+    // ========== ORDER ==========
+    public static int[] order(int[] keys) {
+        long[] u = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            u[i] = (keys[i] ^ Integer.MIN_VALUE) & 0xFFFFFFFFL;
+        }
+        return order(u, 32);
+    }
+
+    public static int[] order(long[] keys) {
+        long[] u = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            u[i] = keys[i] ^ Long.MIN_VALUE;
+        }
+        return order(u, 64);
+    }
+
+    public static int[] order(double[] keys) {
+        long[] u = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            long bits = Double.doubleToLongBits(keys[i]);   // every NaN maps to the same bits
+            u[i] = bits ^ ((bits >> 63) | Long.MIN_VALUE);
+        }
+        return order(u, 64);
+    }
+
+    // stable order of u (compared as unsigned) whose values use the low keyBits bits
+    private static int[] order(long[] u, int keyBits) {
+        int n = u.length;
+        int[] idx = new int[n];
+        for (int i = 0; i < n; i++) idx[i] = i;
+        if (n < SMALL_ARRAY) {
+            insertionSort(u, idx);
+            return idx;
+        }
+
+        int radix = 1 << DIGIT_BITS;
+        int mask = radix - 1;
+        int passes = (keyBits + DIGIT_BITS - 1) / DIGIT_BITS;
+
+        // one scan builds every pass's histogram
+        int[][] counts = new int[passes][radix + 1];
+        for (long key : u) {
+            for (int p = 0; p < passes; p++) {
+                counts[p][((int) (key >>> (p * DIGIT_BITS)) & mask) + 1]++;
+            }
+        }
+
+        long[] srcKey = u, dstKey = new long[n];
+        int[] srcIdx = idx, dstIdx = new int[n];
+        for (int p = 0; p < passes; p++) {
+            int shift = p * DIGIT_BITS;
+            int[] offsets = counts[p];
+            // a digit shared by every element leaves the order unchanged
+            if (offsets[((int) (srcKey[0] >>> shift) & mask) + 1] == n) {
+                continue;
+            }
+            for (int d = 0; d < radix; d++) {
+                offsets[d + 1] += offsets[d];
+            }
+            for (int i = 0; i < n; i++) {
+                long key = srcKey[i];
+                int pos = offsets[(int) (key >>> shift) & mask]++;
+                dstKey[pos] = key;
+                dstIdx[pos] = srcIdx[i];
+            }
+            long[] tk = srcKey;
+            srcKey = dstKey;
+            dstKey = tk;
+            int[] ti = srcIdx;
+            srcIdx = dstIdx;
+            dstIdx = ti;
+        }
+        return srcIdx;
+    }
+
+    private static void insertionSort(long[] u, int[] idx) {
+        for (int i = 1; i < u.length; i++) {
+            long key = u[i];
+            int id = idx[i];
+            int j = i - 1;
+            // strictly greater only, so equal keys stay in input order
+            while (j >= 0 && Long.compareUnsigned(u[j], key) > 0) {
+                u[j + 1] = u[j];
+                idx[j + 1] = idx[j];
+                j--;
+            }
+            u[j + 1] = key;
+            idx[j + 1] = id;
+        }
+    }
+
+    // ========== APPLY ==========
+    public static int[] apply(int[] order, int[] column) {
+        checkLength(order, column.length);
+        int[] out = new int[order.length];
+        for (int i = 0; i < order.length; i++) out[i] = column[order[i]];
+        return out;
+    }
+
+    public static long[] apply(int[] order, long[] column) {
+        checkLength(order, column.length);
+        long[] out = new long[order.length];
+        for (int i = 0; i < order.length; i++) out[i] = column[order[i]];
+        return out;
+    }
+
+    public static double[] apply(int[] order, double[] column) {
+        checkLength(order, column.length);
+        double[] out = new double[order.length];
+        for (int i = 0; i < order.length; i++) out[i] = column[order[i]];
+        return out;
+    }
+
+    // payload objects are only moved, never compared
+    public static <T> T[] apply(int[] order, T[] column) {
+        checkLength(order, column.length);
+        T[] out = Arrays.copyOf(column, order.length);
+        for (int i = 0; i < order.length; i++) out[i] = column[order[i]];
+        return out;
+    }
+
+    private static void checkLength(int[] order, int length) {
+        if (order.length != length) {
+            throw new IllegalArgumentException("Column has " + length + " rows, order has " + order.length);
+        }
+    }
+}
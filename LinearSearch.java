@@ -1,6 +1,24 @@
+import datasorter.SearchEvent;
+
+/**
+ * Every public search emits a SearchEvent (duration, input size, elements
+ * compared, result) to Flight Recorder; without a recording the event
+ * calls are no-ops.
+ */
 public class LinearSearch {
 
+    // elements checked per block by the branch-free kernels below
+    static final int BLOCK = 1024;
+
     public static int linearSearch(int[] arr, int key) {
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        int index = scan(arr, key);
+        record(event, "linearSearch", arr.length, index < 0 ? arr.length : index + 1, index);
+        return index;
+    }
+
+    private static int scan(int[] arr, int key) {
         for (int i = 0; i < arr.length; i++) {
             if (arr[i] == key) {
                 return i;
@@ -8,4 +26,94 @@ public class LinearSearch {
         }
         return -1;
     }
-}
\ No newline at end of file
+
+    // Counts matches block by block with the branch-free counting loop (a
+    // plain counted loop the JIT vectorizes) and scans element by element
+    // only inside the first block that holds the key. Arrays shorter than
+    // one block use the scalar loop.
+    public static int linearSearchBlocked(int[] arr, int key) {
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        int index = scanBlocked(arr, key);
+        int n = arr.length;
+        long compared;
+        if (index < 0) {
+            compared = n;
+        } else if (n < BLOCK) {
+            compared = index + 1;
+        } else {
+            // every block up to the match is counted, then its block is rescanned
+            int blockStart = index - index % BLOCK;
+            compared = Math.min(n, blockStart + BLOCK) + (index - blockStart + 1);
+        }
+        record(event, "linearSearchBlocked", n, compared, index);
+        return index;
+    }
+
+    private static int scanBlocked(int[] arr, int key) {
+        int n = arr.length;
+        if (n < BLOCK) return scan(arr, key);
+        for (int i = 0; i < n; i += BLOCK) {
+            if (countRange(arr, i, Math.min(n, i + BLOCK), key) != 0) {
+                for (int j = i; ; j++) {
+                    if (arr[j] == key) return j;
+                }
+            }
+        }
+        return -1;
+    }
+
+    // number of occurrences of key, branch-free
+    public static int count(int[] arr, int key) {
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        int c = countRange(arr, 0, arr.length, key);
+        record(event, "count", arr.length, arr.length, c);
+        return c;
+    }
+
+    static int countRange(int[] arr, int from, int to, int key) {
+        int c = 0;
+        for (int i = from; i < to; i++) {
+            c += isZero(arr[i] ^ key);
+        }
+        return c;
+    }
+
+    // every index holding key, in ascending order
+    public static int[] indexOfAll(int[] arr, int key) {
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        int[] out = new int[countRange(arr, 0, arr.length, key)];
+        long compared = arr.length;
+        int k = 0;
+        // blocks without a match are skipped by the vectorizable count
+        for (int i = 0; k < out.length; i += BLOCK) {
+            int end = Math.min(arr.length, i + BLOCK);
+            compared += end - i;
+            if (countRange(arr, i, end, key) == 0) continue;
+            compared += end - i;
+            for (int j = i; j < end; j++) {
+                if (arr[j] == key) out[k++] = j;
+            }
+        }
+        record(event, "indexOfAll", arr.length, compared, out.length);
+        return out;
+    }
+
+    private static void record(SearchEvent event, String algorithm, int size, long compared, int result) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.algorithm = algorithm;
+            event.inputSize = size;
+            event.comparisons = compared;
+            event.result = result;
+            event.commit();
+        }
+    }
+
+    // 1 if x == 0, otherwise 0
+    private static int isZero(int x) {
+        return ((x | -x) >>> 31) ^ 1;
+    }
+}
@@ -1,10 +1,11 @@
 package datasorter;
 
+import java.io.IOException;
 import java.util.Scanner;
-import java.util.Random;
 
 public class Mainjava {
     public static void main(String[] args) {
+        TuningProfile.loadOrCalibrate().apply();
         Scanner scanner = new Scanner(System.in);
         SortingAlgorithms sorter = new SortingAlgorithms();
         int[] numbers = null;
@@ -37,12 +38,9 @@ public class Mainjava {
                 case 2:
                          System.out.print("How many random numbers? ");
                     int size = scanner.nextInt();
-                    numbers = new int[size];
-                    Random rand = new Random();
-                    for (int i = 0; i < size; i++) {
-                        numbers[i] = rand.nextInt(1000);
-                    }
-                    System.out.println("Generated " + size + " random numbers!");
+                    long seed = System.nanoTime();
+                    numbers = WorkloadGenerator.generate(WorkloadGenerator.Distribution.UNIFORM, size, 1000, seed);
+                    System.out.println("Generated " + size + " random numbers! (seed " + seed + ")");
                     System.out.print("Numbers: ");
                     printArray(numbers);
                     break;
@@ -112,10 +110,11 @@ public class Mainjava {
     }
     
     public static void printArray(int[] arr) {
-        for (int num : arr) {
-            System.out.print(num + " ");
+        try {
+            FastIntIO.writeText(System.out, arr, ' ');
+        } catch (IOException e) {
+            System.out.println("Output failed: " + e.getMessage());
         }
-        System.out.println();
     }
 }
 
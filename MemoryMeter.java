@@ -0,0 +1,74 @@
+package datasorter;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Memory cost of a stretch of code on the current thread: bytes allocated
+ * (HotSpot's per-thread allocation counter) and the collections and GC time
+ * that happened meanwhile. Take a snapshot with start(), run the code, then
+ * read the deltas. allocatedBytes() is -1 where the JVM has no per-thread
+ * counter.
+ */
+public final class MemoryMeter {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final long startBytes;
+    private final long startGcCount;
+    private final long startGcMillis;
+
+    private MemoryMeter() {
+        startGcCount = gcCount();
+        startGcMillis = gcMillis();
+        startBytes = threadBytes();
+    }
+
+    public static MemoryMeter start() {
+        return new MemoryMeter();
+    }
+
+    public long allocatedBytes() {
+        long now = threadBytes();
+        return now < 0 ? -1 : now - startBytes;
+    }
+
+    public long gcCountDelta() {
+        return gcCount() - startGcCount;
+    }
+
+    public long gcMillisDelta() {
+        return gcMillis() - startGcMillis;
+    }
+
+    // e.g. 512 B, 3.4 KB, 12.0 MB
+    public static String formatBytes(long bytes) {
+        if (bytes < 0) return "n/a";
+        if (bytes < 1024) return bytes + " B";
+        if (bytes < 1024 * 1024) return String.format("%.1f KB", bytes / 1024.0);
+        if (bytes < 1024L * 1024 * 1024) return String.format("%.1f MB", bytes / (1024.0 * 1024));
+        return String.format("%.2f GB", bytes / (1024.0 * 1024 * 1024));
+    }
+
+    private static long threadBytes() {
+        return THREADS.isThreadAllocatedMemorySupported()
+            ? THREADS.getThreadAllocatedBytes(Thread.currentThread().getId()) : -1;
+    }
+
+    private static long gcCount() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionCount());
+        }
+        return total;
+    }
+
+    private static long gcMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionTime());
+        }
+        return total;
+    }
+}
@@ -0,0 +1,112 @@
+package datasorter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * int array outside the Java heap with long indexing.
+ * The storage is a list of direct or memory-mapped buffers of CHUNK_INTS
+ * ints each, so the total length is not limited to 2^31 elements and the
+ * data never passes through the GC. A mapped array writes straight through
+ * to its file (binary big-endian ints, as used by ExternalSort / FastIntIO).
+ */
+public class OffHeapIntArray {
+
+    static final int CHUNK_SHIFT = 28;                 // 2^28 ints = 1 GiB per chunk
+    static final long CHUNK_INTS = 1L << CHUNK_SHIFT;
+    static final long CHUNK_MASK = CHUNK_INTS - 1;
+
+    private final IntBuffer[] chunks;
+    private final MappedByteBuffer[] mapped;
+    private final long length;
+
+    private OffHeapIntArray(IntBuffer[] chunks, MappedByteBuffer[] mapped, long length) {
+        this.chunks = chunks;
+        this.mapped = mapped;
+        this.length = length;
+    }
+
+    // zero-filled array in direct (off-heap) memory, native byte order
+    public static OffHeapIntArray allocate(long length) {
+        int count = chunkCount(length);
+        IntBuffer[] chunks = new IntBuffer[count];
+        for (int c = 0; c < count; c++) {
+            long ints = Math.min(CHUNK_INTS, length - ((long) c << CHUNK_SHIFT));
+            chunks[c] = ByteBuffer.allocateDirect((int) (ints * 4)).order(ByteOrder.nativeOrder()).asIntBuffer();
+        }
+        return new OffHeapIntArray(chunks, null, length);
+    }
+
+    // maps an existing binary int file read-write; changes go to the file
+    public static OffHeapIntArray map(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = ch.size();
+            if (size % 4 != 0) throw new IOException("File size is not a multiple of 4 bytes: " + file);
+            return map(ch, size / 4);
+        }
+    }
+
+    // creates (or truncates) a file of the given length and maps it
+    public static OffHeapIntArray create(Path file, long length) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                                               StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            return map(ch, length);
+        }
+    }
+
+    private static OffHeapIntArray map(FileChannel ch, long length) throws IOException {
+        int count = chunkCount(length);
+        IntBuffer[] chunks = new IntBuffer[count];
+        MappedByteBuffer[] mapped = new MappedByteBuffer[count];
+        for (int c = 0; c < count; c++) {
+            long offset = (long) c << CHUNK_SHIFT;
+            long ints = Math.min(CHUNK_INTS, length - offset);
+            // mappings stay valid after the channel is closed
+            mapped[c] = ch.map(FileChannel.MapMode.READ_WRITE, offset * 4, ints * 4);
+            chunks[c] = mapped[c].asIntBuffer();
+        }
+        return new OffHeapIntArray(chunks, mapped, length);
+    }
+
+    private static int chunkCount(long length) {
+        if (length < 0) throw new IllegalArgumentException("length must be >= 0: " + length);
+        return (int) ((length + CHUNK_INTS - 1) >>> CHUNK_SHIFT);
+    }
+
+    public long length() {
+        return length;
+    }
+
+    public int get(long index) {
+        return chunks[(int) (index >>> CHUNK_SHIFT)].get((int) (index & CHUNK_MASK));
+    }
+
+    public void set(long index, int value) {
+        chunks[(int) (index >>> CHUNK_SHIFT)].put((int) (index & CHUNK_MASK), value);
+    }
+
+    public void swap(long i, long j) {
+        int t = get(i);
+        set(i, get(j));
+        set(j, t);
+    }
+
+    // copies count ints from src[srcPos..] to this[dstPos..]
+    public void copyFrom(OffHeapIntArray src, long srcPos, long dstPos, long count) {
+        for (long k = 0; k < count; k++) {
+            set(dstPos + k, src.get(srcPos + k));
+        }
+    }
+
+    // flushes a mapped array's changes to disk; no-op for direct memory
+    public void force() {
+        if (mapped == null) return;
+        for (MappedByteBuffer m : mapped) m.force();
+    }
+}
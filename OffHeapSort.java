@@ -0,0 +1,203 @@
+package datasorter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * mergeSort and quickSort over an OffHeapIntArray with long indices, for
+ * datasets beyond 2^31 elements or that should stay out of the GC heap.
+ *   - quickSort : the introsort from SortingAlgorithms (ninther pivots,
+ *                 three-way partitioning, heap sort fallback), in place
+ *   - mergeSort : bottom-up merge sort ping-ponging between the array and one
+ *                 auxiliary off-heap array of the same length
+ * Usage: java datasorter.OffHeapSort <file.bin> [quick|merge]
+ * sorts a binary int file in place through a memory mapping.
+ */
+public class OffHeapSort {
+
+    static final int INSERTION_SORT_CUTOFF = 24;
+    static final int NINTHER_THRESHOLD = 128;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: OffHeapSort <file.bin> [quick|merge]");
+            return;
+        }
+        Path file = Paths.get(args[0]);
+        boolean merge = args.length > 1 && args[1].equals("merge");
+        OffHeapIntArray arr = OffHeapIntArray.map(file);
+        long start = System.nanoTime();
+        if (merge) {
+            // the auxiliary array is mapped next to the input so it can exceed RAM too
+            Path auxFile = Files.createTempFile(file.toAbsolutePath().getParent(), "offheap-aux", ".bin");
+            try {
+                mergeSort(arr, OffHeapIntArray.create(auxFile, arr.length()));
+            } finally {
+                Files.deleteIfExists(auxFile);
+            }
+        } else {
+            quickSort(arr);
+        }
+        arr.force();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Sorted %d values in %.3f s (%.1f MB/s)%n",
+                          arr.length(), seconds, arr.length() * 4.0 / (1 << 20) / seconds);
+    }
+
+    // ========== QUICK SORT (introsort) ==========
+    public static void quickSort(OffHeapIntArray a) {
+        quickSort(a, 0, a.length() - 1);
+    }
+
+    public static void quickSort(OffHeapIntArray a, long low, long high) {
+        if (low < high) {
+            quickSort(a, low, high, 2 * (63 - Long.numberOfLeadingZeros(high - low + 1)));
+        }
+    }
+
+    private static void quickSort(OffHeapIntArray a, long low, long high, int depthLimit) {
+        while (high - low + 1 > INSERTION_SORT_CUTOFF) {
+            if (depthLimit == 0) {
+                heapSort(a, low, high);
+                return;
+            }
+            depthLimit--;
+
+            int pivot = a.get(choosePivotIndex(a, low, high));
+
+            // [low..lt-1] < pivot, [lt..gt] == pivot, [gt+1..high] > pivot
+            long lt = low, gt = high, i = low;
+            while (i <= gt) {
+                int v = a.get(i);
+                if (v < pivot) {
+                    a.swap(lt++, i++);
+                } else if (v > pivot) {
+                    a.swap(i, gt--);
+                } else {
+                    i++;
+                }
+            }
+
+            if (lt - low < high - gt) {
+                quickSort(a, low, lt - 1, depthLimit);
+                low = gt + 1;
+            } else {
+                quickSort(a, gt + 1, high, depthLimit);
+                high = lt - 1;
+            }
+        }
+        insertionSort(a, low, high);
+    }
+
+    private static long choosePivotIndex(OffHeapIntArray a, long low, long high) {
+        long mid = low + (high - low) / 2;
+        if (high - low + 1 < NINTHER_THRESHOLD) {
+            return medianOfThree(a, low, mid, high);
+        }
+        long step = (high - low + 1) / 8;
+        long m1 = medianOfThree(a, low, low + step, low + 2 * step);
+        long m2 = medianOfThree(a, mid - step, mid, mid + step);
+        long m3 = medianOfThree(a, high - 2 * step, high - step, high);
+        return medianOfThree(a, m1, m2, m3);
+    }
+
+    private static long medianOfThree(OffHeapIntArray a, long i, long j, long k) {
+        int x = a.get(i), y = a.get(j), z = a.get(k);
+        if (x < y) {
+            if (y < z) return j;
+            return x < z ? k : i;
+        }
+        if (x < z) return i;
+        return y < z ? k : j;
+    }
+
+    static void insertionSort(OffHeapIntArray a, long low, long high) {
+        for (long i = low + 1; i <= high; i++) {
+            int key = a.get(i);
+            long j = i - 1;
+            while (j >= low && a.get(j) > key) {
+                a.set(j + 1, a.get(j));
+                j--;
+            }
+            a.set(j + 1, key);
+        }
+    }
+
+    static void heapSort(OffHeapIntArray a, long low, long high) {
+        long n = high - low + 1;
+        for (long i = n / 2 - 1; i >= 0; i--) {
+            siftDown(a, low, i, n);
+        }
+        for (long end = n - 1; end > 0; end--) {
+            a.swap(low, low + end);
+            siftDown(a, low, 0, end);
+        }
+    }
+
+    private static void siftDown(OffHeapIntArray a, long base, long i, long n) {
+        int value = a.get(base + i);
+        while (true) {
+            long child = 2 * i + 1;
+            if (child >= n) break;
+            if (child + 1 < n && a.get(base + child + 1) > a.get(base + child)) child++;
+            if (a.get(base + child) <= value) break;
+            a.set(base + i, a.get(base + child));
+            i = child;
+        }
+        a.set(base + i, value);
+    }
+
+    // ========== MERGE SORT (bottom-up) ==========
+    public static void mergeSort(OffHeapIntArray a) {
+        mergeSort(a, OffHeapIntArray.allocate(a.length()));
+    }
+
+    // aux must be at least as long as a; its contents are overwritten
+    public static void mergeSort(OffHeapIntArray a, OffHeapIntArray aux) {
+        long n = a.length();
+        if (aux.length() < n) throw new IllegalArgumentException("aux is shorter than the array");
+
+        // short runs are sorted in place first
+        for (long lo = 0; lo < n; lo += INSERTION_SORT_CUTOFF) {
+            insertionSort(a, lo, Math.min(n, lo + INSERTION_SORT_CUTOFF) - 1);
+        }
+
+        OffHeapIntArray src = a, dst = aux;
+        for (long width = INSERTION_SORT_CUTOFF; width < n; width *= 2) {
+            for (long lo = 0; lo < n; lo += 2 * width) {
+                long mid = Math.min(n, lo + width);
+                long hi = Math.min(n, lo + 2 * width);
+                merge(src, lo, mid, hi, dst);
+            }
+            OffHeapIntArray t = src;
+            src = dst;
+            dst = t;
+        }
+        if (src != a) {
+            a.copyFrom(src, 0, 0, n);
+        }
+    }
+
+    // merges src[lo..mid) and src[mid..hi) into dst[lo..hi)
+    private static void merge(OffHeapIntArray src, long lo, long mid, long hi, OffHeapIntArray dst) {
+        long i = lo, j = mid, k = lo;
+        if (i < mid && j < hi) {
+            int x = src.get(i), y = src.get(j);
+            while (true) {
+                if (x <= y) {
+                    dst.set(k++, x);
+                    if (++i == mid) break;
+                    x = src.get(i);
+                } else {
+                    dst.set(k++, y);
+                    if (++j == hi) break;
+                    y = src.get(j);
+                }
+            }
+        }
+        if (i < mid) dst.copyFrom(src, i, k, mid - i);
+        else if (j < hi) dst.copyFrom(src, j, k, hi - j);
+    }
+}
@@ -0,0 +1,141 @@
+package datasorter;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Fork-join merge sort. One auxiliary buffer the size of the input is
+ * allocated up front and the two arrays swap roles on every level
+ * (ping-pong), so no merge step allocates. Ranges below sequentialThreshold
+ * (tuned per machine by TuningProfile) are sorted on the current thread, and
+ * merges of more than PARALLEL_MERGE_THRESHOLD elements are split again by
+ * binary search so the top levels are not limited to a single core.
+ */
+public class ParallelMergeSort {
+
+    static int sequentialThreshold = TuningProfile.DEFAULT_PARALLEL_THRESHOLD;
+    static final int PARALLEL_MERGE_THRESHOLD = 1 << 16;
+    static final int INSERTION_SORT_CUTOFF = 32;
+
+    public static void sort(int[] arr) {
+        sort(arr, ForkJoinPool.commonPool());
+    }
+
+    public static void sort(int[] arr, ForkJoinPool pool) {
+        if (arr.length < 2) return;
+        int[] buffer = arr.clone();
+        // sorts buffer[0..n) into arr[0..n)
+        pool.invoke(new SortTask(buffer, arr, 0, arr.length));
+    }
+
+    // ---------- sort task ----------
+    // On entry src[lo..hi) and dst[lo..hi) hold the same elements; on exit
+    // dst[lo..hi) is sorted and src[lo..hi) is scratch.
+    static class SortTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        final int[] src, dst;
+        final int lo, hi;
+
+        SortTask(int[] src, int[] dst, int lo, int hi) {
+            this.src = src;
+            this.dst = dst;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= sequentialThreshold) {
+                sequentialSort(src, dst, lo, hi);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            // halves are sorted into src, then merged into dst
+            invokeAll(new SortTask(dst, src, lo, mid), new SortTask(dst, src, mid, hi));
+            new MergeTask(src, lo, mid, mid, hi, dst, lo).compute();
+        }
+    }
+
+    static void sequentialSort(int[] src, int[] dst, int lo, int hi) {
+        if (hi - lo <= INSERTION_SORT_CUTOFF) {
+            SortingAlgorithms.insertionSort(dst, lo, hi - 1);
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        sequentialSort(dst, src, lo, mid);
+        sequentialSort(dst, src, mid, hi);
+        if (src[mid - 1] <= src[mid]) {
+            System.arraycopy(src, lo, dst, lo, hi - lo);
+        } else {
+            merge(src, lo, mid, mid, hi, dst, lo);
+        }
+    }
+
+    // ---------- merge task ----------
+    // Merges src[lo1..hi1) and src[lo2..hi2) into dst starting at out.
+    static class MergeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        final int[] src, dst;
+        final int lo1, hi1, lo2, hi2, out;
+
+        MergeTask(int[] src, int lo1, int hi1, int lo2, int hi2, int[] dst, int out) {
+            this.src = src;
+            this.lo1 = lo1;
+            this.hi1 = hi1;
+            this.lo2 = lo2;
+            this.hi2 = hi2;
+            this.dst = dst;
+            this.out = out;
+        }
+
+        @Override
+        protected void compute() {
+            int n1 = hi1 - lo1, n2 = hi2 - lo2;
+            if (n1 + n2 <= PARALLEL_MERGE_THRESHOLD) {
+                merge(src, lo1, hi1, lo2, hi2, dst, out);
+                return;
+            }
+            // split the longer run at its middle, find the matching cut in the other
+            int m1, m2;
+            if (n1 >= n2) {
+                m1 = (lo1 + hi1) >>> 1;
+                m2 = lowerBound(src, lo2, hi2, src[m1]);
+            } else {
+                m2 = (lo2 + hi2) >>> 1;
+                m1 = upperBound(src, lo1, hi1, src[m2]);
+            }
+            int split = out + (m1 - lo1) + (m2 - lo2);
+            invokeAll(new MergeTask(src, lo1, m1, lo2, m2, dst, out),
+                      new MergeTask(src, m1, hi1, m2, hi2, dst, split));
+        }
+    }
+
+    static void merge(int[] src, int lo1, int hi1, int lo2, int hi2, int[] dst, int out) {
+        int i = lo1, j = lo2, k = out;
+        while (i < hi1 && j < hi2) {
+            dst[k++] = src[i] <= src[j] ? src[i++] : src[j++];
+        }
+        if (i < hi1) System.arraycopy(src, i, dst, k, hi1 - i);
+        if (j < hi2) System.arraycopy(src, j, dst, k, hi2 - j);
+    }
+
+    // first index in [lo, hi) with arr[index] >= key
+    static int lowerBound(int[] arr, int lo, int hi, int key) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (arr[mid] < key) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    // first index in [lo, hi) with arr[index] > key
+    static int upperBound(int[] arr, int lo, int hi, int key) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (arr[mid] <= key) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+}
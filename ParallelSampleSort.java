@@ -0,0 +1,136 @@
+package datasorter;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Parallel sample sort.
+ *   1. splitters are chosen from an oversampled, sorted random sample; when
+ *      repeated keys made some of them coincide, every splitter also gets
+ *      an equality bucket, which needs no sorting,
+ *   2. the input is cut into one block per thread; each thread classifies
+ *      its block and fills its own bucket histogram,
+ *   3. prefix sums over (bucket, thread) give every thread a private write
+ *      position per bucket, so the scatter into the output needs no locks,
+ *   4. buckets are sorted concurrently with the sequential introSort and
+ *      copied back.
+ */
+public class ParallelSampleSort {
+
+    static final int SEQUENTIAL_THRESHOLD = 1 << 16;
+    static final int OVERSAMPLING = 32;
+    static final int BUCKETS_PER_THREAD = 4;
+    static final int MAX_BUCKETS = 4096;
+    static final long SAMPLE_SEED = 0x5EED;
+
+    public static void sort(int[] arr) {
+        sort(arr, ForkJoinPool.commonPool());
+    }
+
+    public static void sort(int[] arr, ForkJoinPool pool) {
+        int n = arr.length;
+        int threads = pool.getParallelism();
+        if (n < SEQUENTIAL_THRESHOLD || threads == 1) {
+            SortingAlgorithms.introSort(arr, 0, n - 1, SortProbe.NONE);
+            return;
+        }
+        pool.submit(() -> parallelSort(arr, threads)).join();
+    }
+
+    // runs inside the pool, so the parallel streams below use its threads
+    private static void parallelSort(int[] arr, int threads) {
+        int n = arr.length;
+
+        // ---------- 1. splitters ----------
+        int wanted = Math.min(MAX_BUCKETS, threads * BUCKETS_PER_THREAD);
+        int[] splitters = chooseSplitters(arr, wanted);
+        boolean equality = splitters.length < wanted - 1;
+        int buckets = equality ? 2 * splitters.length + 1 : splitters.length + 1;
+
+        // ---------- 2. classify blocks, per-thread histograms ----------
+        int blocks = threads;
+        int blockSize = (n + blocks - 1) / blocks;
+        short[] bucketOf = new short[n];
+        int[][] counts = new int[blocks][buckets];
+        IntStream.range(0, blocks).parallel().forEach(t -> {
+            int from = t * blockSize, to = Math.min(n, from + blockSize);
+            int[] hist = counts[t];
+            for (int i = from; i < to; i++) {
+                int b = equality ? findEqualityBucket(splitters, arr[i]) : findBucket(splitters, arr[i]);
+                bucketOf[i] = (short) b;
+                hist[b]++;
+            }
+        });
+
+        // ---------- 3. prefix sums, then scatter ----------
+        int[] bucketStart = new int[buckets + 1];
+        int[][] writePos = new int[blocks][buckets];
+        int pos = 0;
+        for (int b = 0; b < buckets; b++) {
+            bucketStart[b] = pos;
+            for (int t = 0; t < blocks; t++) {
+                writePos[t][b] = pos;
+                pos += counts[t][b];
+            }
+        }
+        bucketStart[buckets] = n;
+
+        int[] out = new int[n];
+        IntStream.range(0, blocks).parallel().forEach(t -> {
+            int from = t * blockSize, to = Math.min(n, from + blockSize);
+            int[] wp = writePos[t];
+            for (int i = from; i < to; i++) {
+                out[wp[bucketOf[i]]++] = arr[i];
+            }
+        });
+
+        // ---------- 4. sort buckets, copy back ----------
+        IntStream.range(0, buckets).parallel().forEach(b -> {
+            int from = bucketStart[b], to = bucketStart[b + 1];
+            // odd buckets hold a single key when equality buckets are on
+            if (to - from > 1 && !(equality && (b & 1) == 1)) {
+                SortingAlgorithms.introSort(out, from, to - 1, SortProbe.NONE);
+            }
+            System.arraycopy(out, from, arr, from, to - from);
+        });
+    }
+
+    // buckets - 1 distinct splitters taken at even ranks of a sorted sample
+    static int[] chooseSplitters(int[] arr, int buckets) {
+        int sampleSize = buckets * OVERSAMPLING;
+        SplittableRandom rng = new SplittableRandom(SAMPLE_SEED);
+        int[] sample = new int[sampleSize];
+        for (int i = 0; i < sampleSize; i++) sample[i] = arr[rng.nextInt(arr.length)];
+        SortingAlgorithms.introSort(sample, 0, sampleSize - 1, SortProbe.NONE);
+
+        int[] splitters = new int[buckets - 1];
+        int count = 0;
+        for (int i = 1; i < buckets; i++) {
+            int s = sample[i * OVERSAMPLING];
+            // duplicate splitters would only produce empty buckets
+            if (count == 0 || splitters[count - 1] != s) splitters[count++] = s;
+        }
+        return Arrays.copyOf(splitters, count);
+    }
+
+    // index of the first splitter greater than value, i.e. bucket b holds
+    // splitters[b-1] <= value < splitters[b]
+    static int findBucket(int[] splitters, int value) {
+        int lo = 0, hi = splitters.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (splitters[mid] <= value) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    // with equality buckets: 2i + 1 holds value == splitters[i] and 2i the
+    // values strictly between splitters[i-1] and splitters[i]
+    static int findEqualityBucket(int[] splitters, int value) {
+        int b = findBucket(splitters, value);
+        return b > 0 && splitters[b - 1] == value ? 2 * b - 1 : 2 * b;
+    }
+}
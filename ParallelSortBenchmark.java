@@ -0,0 +1,81 @@
+import datasorter.ParallelMergeSort;
+import datasorter.ParallelSampleSort;
+import datasorter.WorkloadGenerator;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Thread-scaling benchmark: ParallelSampleSort and ParallelMergeSort against
+ * Arrays.parallelSort on the same input, from 1 thread up to the number of
+ * available processors. Each configuration runs in its own ForkJoinPool and
+ * reports the median of several repetitions after warm-up.
+ *
+ * Usage: java ParallelSortBenchmark [size] [distribution] [repetitions]
+ */
+public class ParallelSortBenchmark {
+
+    interface PoolSort {
+        void sort(int[] arr, ForkJoinPool pool);
+    }
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        String dist = args.length > 1 ? args[1] : "uniform";
+        int reps = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        int maxThreads = Runtime.getRuntime().availableProcessors();
+
+        int[] data = WorkloadGenerator.generate(WorkloadGenerator.Distribution.parse(dist),
+                                                size, Integer.MAX_VALUE, 42);
+
+        String[] names = {"Sample Sort", "Parallel Merge", "Arrays.parallelSort"};
+        PoolSort[] sorts = {
+            ParallelSampleSort::sort,
+            ParallelMergeSort::sort,
+            (a, pool) -> pool.submit(() -> Arrays.parallelSort(a)).join()
+        };
+
+        System.out.printf("Size %d, %s input, median of %d runs%n", size, dist, reps);
+        System.out.printf("%-8s", "Threads");
+        for (String name : names) System.out.printf(" | %-20s %-8s", name + " (ms)", "speedup");
+        System.out.println();
+
+        double[] baseline = new double[names.length];
+        for (int threads = 1; threads <= maxThreads; threads = nextThreads(threads, maxThreads)) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            System.out.printf("%-8d", threads);
+            for (int s = 0; s < sorts.length; s++) {
+                double ms = medianMillis(sorts[s], data, pool, reps);
+                if (threads == 1) baseline[s] = ms;
+                System.out.printf(" | %-20.2f %-8.2f", ms, baseline[s] / ms);
+            }
+            System.out.println();
+            pool.shutdown();
+        }
+    }
+
+    // 1, 2, 4, ... and finally the processor count itself
+    static int nextThreads(int threads, int max) {
+        if (threads == max) return max + 1;
+        return Math.min(max, threads * 2);
+    }
+
+    static double medianMillis(PoolSort sort, int[] data, ForkJoinPool pool, int reps) {
+        int[] expected = null;
+        double[] times = new double[reps];
+        for (int r = -2; r < reps; r++) {          // two warm-up runs
+            int[] copy = data.clone();
+            long start = System.nanoTime();
+            sort.sort(copy, pool);
+            long elapsed = System.nanoTime() - start;
+            if (expected == null) {
+                expected = data.clone();
+                Arrays.sort(expected);
+            }
+            if (!Arrays.equals(copy, expected)) throw new IllegalStateException("Output is not sorted");
+            if (r >= 0) times[r] = elapsed / 1e6;
+        }
+        Arrays.sort(times);
+        return times[reps / 2];
+    }
+}
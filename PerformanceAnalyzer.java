@@ -1,47 +1,338 @@
-import java.util.Random;
+import datasorter.MemoryMeter;
+import datasorter.WorkloadGenerator;
 
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.IntSupplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Scaling runner: times each operation over sizes growing geometrically from
+ * --min to --max, reports the median, p95, p99 and standard deviation of the
+ * measured repetitions (warm-up repetitions are discarded), and fits the
+ * exponent k of time ~ n^k by least squares on the log-log medians. Memory
+ * cost is reported as bytes allocated per repetition and the collections
+ * (count / ms) that ran during the measured repetitions.
+ * Usage: java PerformanceAnalyzer [--min 100] [--max 10000000] [--factor 10]
+ *                                 [--reps 10] [--warmup 3] [--budget 60]
+ *                                 [--csv out.csv] [--json out.json]
+ *                                 [--baseline old.csv] [--threshold 0.10]
+ * --baseline compares medians with a CSV written by an earlier run and exits
+ * with status 1 when any is slower by more than --threshold (a fraction).
+ * Sizes near 10^8 need a large heap (-Xmx); an operation that runs out of
+ * memory or stack, or whose repetitions at one size take longer than
+ * --budget seconds, is skipped for every larger size.
+ */
 public class PerformanceAnalyzer {
 
+    // fixed seed so every run measures the same input
+    static final long SEED = 2300;
+
+    // fast operations are repeated until one sample lasts at least this long
+    static final long MIN_SAMPLE_NANOS = 100_000;
+
+    // keeps results alive so the JIT cannot drop the timed calls
+    private static volatile int sink;
+
     public static int[] generateArray(int size) {
-        Random rand = new Random();
-        int[] arr = new int[size];
+        return WorkloadGenerator.generate(WorkloadGenerator.Distribution.UNIFORM, size, 10000, SEED);
+    }
+
+    // ---------- measured operations ----------
+    static class Workload {
+        final int[] arr;
+        final int[] copy;       // introSort's working copy, reused so no sample allocates it
+        final int key;
+        IntHashIndex index;     // built on first use by indexLookup
+
+        Workload(int[] arr) {
+            this.arr = arr;
+            this.copy = new int[arr.length];
+            this.key = -1;   // absent (values are in [0, 10000)): worst case for linear search
+        }
+    }
+
+    // each operation returns the nanoseconds of one sample
+    static final Map<String, ToLongFunction<Workload>> OPERATIONS = new LinkedHashMap<>();
+    static {
+        OPERATIONS.put("linearSearch", w -> perCall(() -> LinearSearch.linearSearch(w.arr, w.key)));
+        OPERATIONS.put("indexBuild", w -> {
+            long start = System.nanoTime();
+            IntHashIndex index = new IntHashIndex(w.arr);
+            long elapsed = System.nanoTime() - start;
+            sink ^= index.size();
+            return elapsed;
+        });
+        OPERATIONS.put("indexLookup", w -> {
+            if (w.index == null) w.index = new IntHashIndex(w.arr);
+            return perCall(() -> w.index.indexOf(w.key));
+        });
+        // the production sort: values in [0, 10000) repeat heavily, which
+        // makes the textbook Lomuto quickSort quadratic
+        OPERATIONS.put("introSort", w -> {
+            System.arraycopy(w.arr, 0, w.copy, 0, w.arr.length);
+            long start = System.nanoTime();
+            QuickSort.sort(w.copy);
+            return System.nanoTime() - start;
+        });
+    }
+
+    // average nanoseconds per call over enough calls to fill MIN_SAMPLE_NANOS
+    static long perCall(IntSupplier op) {
+        long calls = 0;
+        long start = System.nanoTime(), elapsed;
+        do {
+            sink ^= op.getAsInt();
+            calls++;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < MIN_SAMPLE_NANOS);
+        return elapsed / calls;
+    }
+
+    // ---------- configuration ----------
+    static class Config {
+        int min = 100;
+        int max = 10_000_000;
+        int factor = 10;
+        int reps = 10;
+        int warmup = 3;
+        int budget = 60;            // seconds per operation and size
+        String csv = null;
+        String json = null;
+        String baseline = null;
+        double threshold = 0.10;
+    }
+
+    static Config parse(String[] args) {
+        Config c = new Config();
+        for (int i = 0; i < args.length; i++) {
+            String v = i + 1 < args.length ? args[i + 1] : "";
+            switch (args[i]) {
+                case "--min":       c.min = Integer.parseInt(v); i++; break;
+                case "--max":       c.max = Integer.parseInt(v); i++; break;
+                case "--factor":    c.factor = Integer.parseInt(v); i++; break;
+                case "--reps":      c.reps = Integer.parseInt(v); i++; break;
+                case "--warmup":    c.warmup = Integer.parseInt(v); i++; break;
+                case "--budget":    c.budget = Integer.parseInt(v); i++; break;
+                case "--csv":       c.csv = v; i++; break;
+                case "--json":      c.json = v; i++; break;
+                case "--baseline":  c.baseline = v; i++; break;
+                case "--threshold": c.threshold = Double.parseDouble(v); i++; break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (c.min < 1 || c.max < c.min || c.factor < 2 || c.reps < 1 || c.warmup < 0 || c.budget < 1) {
+            throw new IllegalArgumentException("Need 1 <= min <= max, factor >= 2, reps >= 1, warmup >= 0, budget >= 1");
+        }
+        return c;
+    }
 
-        for (int i = 0; i < size; i++) {
-            arr[i] = rand.nextInt(10000);
+    // ---------- statistics of one (operation, size) ----------
+    static class Stats {
+        final String op;
+        final int size;
+        final double median, p95, p99, mean, stdDev;
+        final long allocBytes;      // per repetition
+        final long gcCount, gcMillis;
+
+        Stats(String op, int size, long[] samples, MemoryMeter meter) {
+            this.op = op;
+            this.size = size;
+            long bytes = meter.allocatedBytes();
+            allocBytes = bytes < 0 ? -1 : bytes / samples.length;
+            gcCount = meter.gcCountDelta();
+            gcMillis = meter.gcMillisDelta();
+            long[] s = samples.clone();
+            Arrays.sort(s);
+            median = s.length % 2 == 1 ? s[s.length / 2] : (s[s.length / 2 - 1] + s[s.length / 2]) / 2.0;
+            p95 = percentile(s, 95);
+            p99 = percentile(s, 99);
+            double sum = 0;
+            for (long x : s) sum += x;
+            mean = sum / s.length;
+            double var = 0;
+            for (long x : s) var += (x - mean) * (x - mean);
+            stdDev = s.length < 2 ? 0 : Math.sqrt(var / (s.length - 1));
+        }
+
+        // nearest-rank percentile of sorted samples
+        static double percentile(long[] sorted, int p) {
+            int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+            return sorted[Math.max(0, rank - 1)];
         }
-        return arr;
     }
 
-    public static void main(String[] args) {
+    static final String LINE = "-".repeat(127);
+
+    public static void main(String[] args) throws IOException {
+        Config c = parse(args);
+
+        List<Integer> sizes = new ArrayList<>();
+        for (long n = c.min; n <= c.max; n *= c.factor) sizes.add((int) n);
 
-        int[] sizes = {100, 500, 1000};
+        List<Stats> results = new ArrayList<>();
+        Map<String, Integer> failedAt = new HashMap<>();
 
-        System.out.println("-------------------------------------------------------------");
-        System.out.println(" Size | Linear Search Time (ns) | Quick Sort Time (ns)");
-        System.out.println("-------------------------------------------------------------");
+        System.out.printf("%d measured repetitions after %d warm-up, times in ns%n", c.reps, c.warmup);
+        System.out.println(LINE);
+        System.out.println("       Size | Operation    |     Median (ns) |        p95 (ns) |        p99 (ns) |    Std dev (ns)"
+                           + " |  Alloc / rep | GC (n/ms)");
+        System.out.println(LINE);
 
         for (int size : sizes) {
+            Workload w;
+            try {
+                w = new Workload(generateArray(size));
+            } catch (OutOfMemoryError e) {
+                System.out.printf(" %10d | out of memory generating the input, stopping%n", size);
+                break;
+            }
+            for (Map.Entry<String, ToLongFunction<Workload>> op : OPERATIONS.entrySet()) {
+                String name = op.getKey();
+                if (failedAt.containsKey(name)) continue;
+                long[] samples = new long[c.reps];
+                MemoryMeter meter = null;
+                long started = System.nanoTime();
+                try {
+                    for (int rep = -c.warmup; rep < c.reps; rep++) {
+                        if (rep == 0) meter = MemoryMeter.start();
+                        long t = op.getValue().applyAsLong(w);
+                        if (rep >= 0) samples[rep] = t;
+                    }
+                } catch (OutOfMemoryError | StackOverflowError e) {
+                    w.index = null;
+                    failedAt.put(name, size);
+                    System.out.printf(" %10d | %-12s | %s, skipped from here on%n", size, name,
+                                      e instanceof OutOfMemoryError ? "out of memory" : "stack overflow");
+                    continue;
+                }
+                // the next size would take at least factor times as long
+                boolean overBudget = System.nanoTime() - started > c.budget * 1_000_000_000L;
+                Stats s = new Stats(name, size, samples, meter);
+                results.add(s);
+                System.out.printf(Locale.ROOT, " %10d | %-12s | %15.0f | %15.0f | %15.0f | %15.0f | %12s | %s%n",
+                                  size, name, s.median, s.p95, s.p99, s.stdDev,
+                                  MemoryMeter.formatBytes(s.allocBytes), s.gcCount + "/" + s.gcMillis);
+                if (overBudget) {
+                    failedAt.put(name, size);
+                    System.out.printf(" %10s | %-12s | over the %d s budget, skipped from here on%n", "", name, c.budget);
+                }
+            }
+            System.out.println(LINE);
+        }
 
-            int[] arr = generateArray(size);
-            int searchKey = arr[size - 1];   // worst-case for linear search
+        Map<String, Double> exponents = fitExponents(results);
+        System.out.println("Empirical complexity (time ~ n^k, least squares on log-log medians):");
+        for (Map.Entry<String, Double> e : exponents.entrySet()) {
+            System.out.printf(Locale.ROOT, "  %-12s k = %.2f%n", e.getKey(), e.getValue());
+        }
 
-            // -------- Linear Search Timing --------
-            long startSearch = System.nanoTime();
-            LinearSearch.linearSearch(arr, searchKey);
-            long endSearch = System.nanoTime();
-            long searchTime = endSearch - startSearch;
+        if (c.csv != null) {
+            writeCsv(results, c.csv);
+            System.out.println("CSV results written to " + c.csv);
+        }
+        if (c.json != null) {
+            writeJson(results, exponents, c, c.json);
+            System.out.println("JSON results written to " + c.json);
+        }
+        if (c.baseline != null && compareBaseline(results, c.baseline, c.threshold) > 0) {
+            System.exit(1);
+        }
+    }
 
-            // -------- Quick Sort Timing --------
-            int[] copyArr = arr.clone();
+    // slope of ln(median) against ln(n) for every operation with two or more sizes
+    static Map<String, Double> fitExponents(List<Stats> results) {
+        Map<String, Double> exponents = new LinkedHashMap<>();
+        for (String op : OPERATIONS.keySet()) {
+            double sx = 0, sy = 0, sxx = 0, sxy = 0;
+            int count = 0;
+            for (Stats s : results) {
+                if (!s.op.equals(op) || s.median <= 0) continue;
+                double x = Math.log(s.size), y = Math.log(s.median);
+                sx += x;
+                sy += y;
+                sxx += x * x;
+                sxy += x * y;
+                count++;
+            }
+            if (count >= 2) {
+                exponents.put(op, (count * sxy - sx * sy) / (count * sxx - sx * sx));
+            }
+        }
+        return exponents;
+    }
 
-            long startSort = System.nanoTime();
-            QuickSort.quickSort(copyArr, 0, copyArr.length - 1);
-            long endSort = System.nanoTime();
-            long sortTime = endSort - startSort;
+    // ---------- export ----------
+    static final String CSV_HEADER = "operation,size,median_ns,p95_ns,p99_ns,mean_ns,stddev_ns,alloc_bytes,gc_count,gc_ms";
 
-            System.out.printf(" %4d | %22d | %21d \n", size, searchTime, sortTime);
+    static void writeCsv(List<Stats> results, String path) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(Paths.get(path)))) {
+            out.println(CSV_HEADER);
+            for (Stats s : results) {
+                out.printf(Locale.ROOT, "%s,%d,%.1f,%.1f,%.1f,%.1f,%.1f,%d,%d,%d%n",
+                           s.op, s.size, s.median, s.p95, s.p99, s.mean, s.stdDev, s.allocBytes, s.gcCount, s.gcMillis);
+            }
         }
+    }
 
-        System.out.println("-------------------------------------------------------------");
+    static void writeJson(List<Stats> results, Map<String, Double> exponents, Config c, String path) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(Paths.get(path)))) {
+            out.println("{");
+            out.printf("  \"repetitions\" : %d,%n", c.reps);
+            out.printf("  \"warmup\" : %d,%n", c.warmup);
+            out.println("  \"results\" : [");
+            for (int i = 0; i < results.size(); i++) {
+                Stats s = results.get(i);
+                out.printf(Locale.ROOT, "    { \"operation\" : \"%s\", \"size\" : %d, \"median\" : %.1f, \"p95\" : %.1f, "
+                           + "\"p99\" : %.1f, \"mean\" : %.1f, \"stdDev\" : %.1f, \"allocBytes\" : %d, "
+                           + "\"gcCount\" : %d, \"gcMillis\" : %d }%s%n",
+                           s.op, s.size, s.median, s.p95, s.p99, s.mean, s.stdDev, s.allocBytes, s.gcCount, s.gcMillis,
+                           i + 1 < results.size() ? "," : "");
+            }
+            out.println("  ],");
+            out.println("  \"exponents\" : {");
+            int i = 0;
+            for (Map.Entry<String, Double> e : exponents.entrySet()) {
+                out.printf(Locale.ROOT, "    \"%s\" : %.3f%s%n", e.getKey(), e.getValue(),
+                           ++i < exponents.size() ? "," : "");
+            }
+            out.println("  }");
+            out.println("}");
+        }
+    }
+
+    // ---------- baseline comparison ----------
+    // prints every median slower than the baseline by more than threshold; returns how many
+    static int compareBaseline(List<Stats> results, String path, double threshold) throws IOException {
+        Map<String, Double> baseline = new HashMap<>();
+        for (String line : Files.readAllLines(Paths.get(path))) {
+            if (line.isEmpty() || line.startsWith("operation,")) continue;
+            String[] f = line.split(",");
+            baseline.put(f[0] + "," + f[1], Double.parseDouble(f[2]));
+        }
+        int regressions = 0, compared = 0;
+        for (Stats s : results) {
+            Double old = baseline.get(s.op + "," + s.size);
+            if (old == null || old <= 0) continue;
+            compared++;
+            double change = s.median / old - 1;
+            if (change > threshold) {
+                regressions++;
+                System.out.printf(Locale.ROOT, "REGRESSION %-12s n=%-10d %.0f ns -> %.0f ns (+%.1f%%)%n",
+                                  s.op, s.size, old, s.median, change * 100);
+            }
+        }
+        System.out.printf(Locale.ROOT, "Compared %d results with %s: %d regression(s) above %.0f%%%n",
+                          compared, path, regressions, threshold * 100);
+        return regressions;
     }
-}
\ No newline at end of file
+}
@@ -1,32 +1,16 @@
-public class QuickSort {
+import datasorter.SortingAlgorithms;
 
-    public static void quickSort(int[] arr, int low, int high) {
-        if (low < high) {
-            int pi = partition(arr, low, high);
+public class QuickSort {
 
-            quickSort(arr, low, pi - 1);
-            quickSort(arr, pi + 1, high);
-        }
+    // Production entry point: introsort (ninther pivots, three-way partitioning,
+    // heap sort fallback), safe on sorted and duplicate-heavy input.
+    public static void sort(int[] arr) {
+        SortingAlgorithms.introSort(arr);
     }
 
-    private static int partition(int[] arr, int low, int high) {
-        int pivot = arr[high];
-        int i = low - 1;
-
-        for (int j = low; j < high; j++) {
-            if (arr[j] <= pivot) {
-                i++;
-
-                int temp = arr[i];
-                arr[i] = arr[j];
-                arr[j] = temp;
-            }
-        }
-
-        int temp = arr[i + 1];
-        arr[i + 1] = arr[high];
-        arr[high] = temp;
-
-        return i + 1;
+    // Sorts arr[low..high] with the same introsort; the Lomuto version this
+    // replaced was quadratic on sorted and duplicate-heavy input
+    public static void quickSort(int[] arr, int low, int high) {
+        SortingAlgorithms.introSort(arr, low, high);
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
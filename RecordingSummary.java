@@ -0,0 +1,105 @@
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Summarizes the ccs2300.Sort / Search / Route events of a Flight Recorder
+ * recording into per-algorithm latency percentiles and a histogram with
+ * power-of-two microsecond buckets.
+ * Record with e.g.
+ *   java -XX:StartFlightRecording=filename=run.jfr -cp out datasorter.DataSorter
+ * then run: java RecordingSummary run.jfr
+ */
+public class RecordingSummary {
+
+    static final int BAR_WIDTH = 40;
+
+    static class Group {
+        final List<Long> nanos = new ArrayList<>();
+        long minSize = Long.MAX_VALUE, maxSize = Long.MIN_VALUE;
+        long comparisons;
+        int counted;        // events whose comparisons were counted
+        long settled;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.out.println("Usage: RecordingSummary <recording.jfr>");
+            return;
+        }
+        Map<String, Group> groups = new TreeMap<>();
+        for (RecordedEvent e : RecordingFile.readAllEvents(Paths.get(args[0]))) {
+            String type = e.getEventType().getName();
+            if (!type.startsWith("ccs2300.")) continue;
+            Group g = groups.computeIfAbsent(type.substring("ccs2300.".length()) + " / " + e.getString("algorithm"),
+                                             k -> new Group());
+            g.nanos.add(e.getDuration().toNanos());
+            long size = e.getLong("inputSize");
+            g.minSize = Math.min(g.minSize, size);
+            g.maxSize = Math.max(g.maxSize, size);
+            long comparisons = e.getLong("comparisons");
+            if (comparisons >= 0) {     // -1: sort recorded without countComparisons
+                g.comparisons += comparisons;
+                g.counted++;
+            }
+            if (e.hasField("nodesSettled")) g.settled += e.getLong("nodesSettled");
+        }
+        if (groups.isEmpty()) {
+            System.out.println("No ccs2300.* events in " + args[0]);
+            return;
+        }
+        for (Map.Entry<String, Group> entry : groups.entrySet()) {
+            print(entry.getKey(), entry.getValue());
+        }
+    }
+
+    static void print(String name, Group g) {
+        long[] d = g.nanos.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(d);
+        int n = d.length;
+        System.out.println("==================================================================");
+        System.out.printf(Locale.ROOT, "%s: %d calls, input size %d..%d%s%s%n",
+                          name, n, g.minSize, g.maxSize,
+                          g.counted > 0 ? String.format(Locale.ROOT, ", %.1f comparisons/call", (double) g.comparisons / g.counted) : "",
+                          g.settled > 0 ? String.format(Locale.ROOT, ", %.1f nodes settled/call", (double) g.settled / n) : "");
+        System.out.printf(Locale.ROOT, "  p50 %s   p90 %s   p99 %s   max %s%n",
+                          micros(percentile(d, 50)), micros(percentile(d, 90)),
+                          micros(percentile(d, 99)), micros(d[n - 1]));
+
+        // bucket b holds durations in [2^(b-1), 2^b) microseconds, bucket 0 below 1 us
+        int[] buckets = new int[64];
+        int last = 0;
+        for (long nanos : d) {
+            long us = nanos / 1000;
+            int b = us == 0 ? 0 : 64 - Long.numberOfLeadingZeros(us);
+            buckets[b]++;
+            last = Math.max(last, b);
+        }
+        int first = 0;
+        while (buckets[first] == 0) first++;
+        int peak = Arrays.stream(buckets).max().getAsInt();
+        for (int b = first; b <= last; b++) {
+            String range = b == 0 ? "< 1 us" : String.format("%d-%d us", 1L << (b - 1), 1L << b);
+            int bar = (int) Math.round((double) buckets[b] * BAR_WIDTH / peak);
+            System.out.printf("  %20s | %-" + BAR_WIDTH + "s %d%n", range, "#".repeat(bar), buckets[b]);
+        }
+    }
+
+    // nearest-rank percentile of sorted values
+    static long percentile(long[] sorted, int p) {
+        int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    static String micros(long nanos) {
+        return String.format(Locale.ROOT, "%.1f us", nanos / 1000.0);
+    }
+}
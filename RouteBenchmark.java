@@ -0,0 +1,204 @@
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Large-graph driver for the route planner. Builds a synthetic road network
+ * straight into a CompiledGraph (SmartCityRoutePlanner's menu is far too
+ * slow for a million locations), then reports the build, BFS and
+ * preprocessing times and, for every route algorithm, the nodes settled and
+ * time per query averaged over random source / destination pairs (after
+ * one untimed pass over the same pairs). Every distance is checked against
+ * plain Dijkstra.
+ *   - grid : side x side lattice with 10 km spacing, roads of 10-29 km
+ *   - knn  : random points at about one per 100 km2, each joined to its
+ *            3 nearest neighbours, roads 1-1.5x the straight line
+ *
+ * Usage: java RouteBenchmark [grid|knn] [vertices] [queries] [algorithms]
+ *   algorithms: comma-separated RouteAlgorithm names, default all of them
+ *   (the contraction hierarchy grows faster than the graph: about 3 s to build
+ *   at 10k grid vertices, 13 s at 40k and 1 min at 160k; 10 s for 200k knn)
+ */
+public class RouteBenchmark {
+
+    static final long SEED = 42;
+
+    public static void main(String[] args) {
+        String shape = args.length > 0 ? args[0] : "grid";
+        int vertices = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        int queries = args.length > 2 ? Integer.parseInt(args[2]) : 60;
+        EnumSet<SmartCityRoutePlanner.RouteAlgorithm> algorithms = args.length > 3
+            ? parseAlgorithms(args[3]) : EnumSet.allOf(SmartCityRoutePlanner.RouteAlgorithm.class);
+
+        long start = System.nanoTime();
+        SmartCityRoutePlanner.CompiledGraph g;
+        switch (shape) {
+            case "grid": g = grid((int) Math.sqrt(vertices), new Random(SEED)); break;
+            case "knn":  g = nearestNeighbours(vertices, 3, new Random(SEED)); break;
+            default: throw new IllegalArgumentException("Unknown graph shape: " + shape + " (grid, knn)");
+        }
+        System.out.printf("%s graph: %d vertices, %d roads, built in %d ms%n", shape, g.size(),
+                          g.targets.length / 2, (System.nanoTime() - start) / 1_000_000);
+        long csr = 4L * (g.offsets.length + g.targets.length + g.weights.length);
+        long positions = 8L * (g.xs.length + g.ys.length);
+        System.out.printf("CSR arrays %.1f MB, positions %.1f MB%n", csr / 1e6, positions / 1e6);
+
+        start = System.nanoTime();
+        int reached = g.bfs(0).length;
+        System.out.printf("BFS from vertex 0 reaches %d vertices in %d ms%n", reached,
+                          (System.nanoTime() - start) / 1_000_000);
+
+        if (algorithms.contains(SmartCityRoutePlanner.RouteAlgorithm.ALT)) {
+            start = System.nanoTime();
+            g.landmarks();
+            System.out.printf("Landmarks (%d) in %d ms%n", g.landmarks().length, (System.nanoTime() - start) / 1_000_000);
+        }
+        if (algorithms.contains(SmartCityRoutePlanner.RouteAlgorithm.HIERARCHY)) {
+            start = System.nanoTime();
+            int shortcuts = g.hierarchy().shortcuts();
+            System.out.printf("Contraction hierarchy (%d shortcuts) in %d ms%n", shortcuts,
+                              (System.nanoTime() - start) / 1_000_000);
+        }
+
+        Random rnd = new Random(SEED + 1);
+        int[] src = new int[queries], dst = new int[queries], expected = new int[queries];
+        for (int q = 0; q < queries; q++) {
+            src[q] = rnd.nextInt(g.size());
+            dst[q] = rnd.nextInt(g.size());
+            expected[q] = g.shortestPath(src[q], dst[q]).distance;
+        }
+
+        System.out.printf("%n%d random queries%n", queries);
+        System.out.printf("%-15s | %-15s | %-15s | %-12s%n", "Algorithm", "Settled / query", "Edges / query", "us / query");
+        for (SmartCityRoutePlanner.RouteAlgorithm algorithm : algorithms) {
+            for (int q = 0; q < queries; q++) {   // warm-up
+                SmartCityRoutePlanner.CityGraph.search(g, src[q], dst[q], algorithm);
+            }
+            long settled = 0, edges = 0, nanos = 0;
+            for (int q = 0; q < queries; q++) {
+                long t0 = System.nanoTime();
+                SmartCityRoutePlanner.Route route = SmartCityRoutePlanner.CityGraph.search(g, src[q], dst[q], algorithm);
+                nanos += System.nanoTime() - t0;
+                if (route.distance != expected[q]) {
+                    throw new IllegalStateException(algorithm.label + " found " + route.distance + " instead of "
+                                                    + expected[q] + " from " + src[q] + " to " + dst[q]);
+                }
+                settled += route.settled;
+                edges += route.edgesExamined;
+            }
+            System.out.printf("%-15s | %15d | %15d | %12d%n", algorithm.label, settled / Math.max(1, queries),
+                              edges / Math.max(1, queries), nanos / 1000 / Math.max(1, queries));
+        }
+    }
+
+    static EnumSet<SmartCityRoutePlanner.RouteAlgorithm> parseAlgorithms(String list) {
+        EnumSet<SmartCityRoutePlanner.RouteAlgorithm> set = EnumSet.noneOf(SmartCityRoutePlanner.RouteAlgorithm.class);
+        for (String name : list.split(",")) {
+            set.add(SmartCityRoutePlanner.RouteAlgorithm.valueOf(name.trim().toUpperCase(Locale.ROOT)));
+        }
+        return set;
+    }
+
+    // side x side lattice, vertex r * side + c at (10c, 10r) km
+    static SmartCityRoutePlanner.CompiledGraph grid(int side, Random rnd) {
+        int n = side * side;
+        int roads = 2 * side * (side - 1);
+        int[] from = new int[roads], to = new int[roads], dist = new int[roads];
+        double[] xs = new double[n], ys = new double[n];
+        int k = 0;
+        for (int r = 0; r < side; r++) {
+            for (int c = 0; c < side; c++) {
+                int v = r * side + c;
+                xs[v] = 10.0 * c;
+                ys[v] = 10.0 * r;
+                if (c + 1 < side) { from[k] = v; to[k] = v + 1;    dist[k++] = 10 + rnd.nextInt(20); }
+                if (r + 1 < side) { from[k] = v; to[k] = v + side; dist[k++] = 10 + rnd.nextInt(20); }
+            }
+        }
+        return SmartCityRoutePlanner.CompiledGraph.fromEdges(names(n), xs, ys, from, to, dist);
+    }
+
+    // n random points, each joined to its k nearest neighbours (a pair that
+    // are each other's neighbours gets one road). Points are bucketed into
+    // 10 km cells and the search grows ring by ring around the point's cell.
+    static SmartCityRoutePlanner.CompiledGraph nearestNeighbours(int n, int k, Random rnd) {
+        int cells = Math.max(1, (int) Math.sqrt(n));
+        double cell = 10.0, size = cells * cell;
+        double[] xs = new double[n], ys = new double[n];
+        for (int v = 0; v < n; v++) {
+            xs[v] = rnd.nextDouble() * size;
+            ys[v] = rnd.nextDouble() * size;
+        }
+        // counting sort of the points by cell
+        int[] cellStart = new int[cells * cells + 1];
+        int[] cellOf = new int[n];
+        for (int v = 0; v < n; v++) {
+            cellOf[v] = Math.min(cells - 1, (int) (ys[v] / cell)) * cells + Math.min(cells - 1, (int) (xs[v] / cell));
+            cellStart[cellOf[v] + 1]++;
+        }
+        for (int c = 0; c < cells * cells; c++) cellStart[c + 1] += cellStart[c];
+        int[] fill = Arrays.copyOf(cellStart, cells * cells);
+        int[] byCell = new int[n];
+        for (int v = 0; v < n; v++) byCell[fill[cellOf[v]]++] = v;
+
+        int[] near = new int[n * k];
+        double[] best = new double[k];
+        for (int v = 0; v < n; v++) {
+            Arrays.fill(best, Double.POSITIVE_INFINITY);
+            Arrays.fill(near, v * k, v * k + k, -1);
+            int cx = cellOf[v] % cells, cy = cellOf[v] / cells;
+            // cells in ring r are at least (r - 1) * cell away
+            for (int r = 0; r < cells && (r - 1) * cell < Math.sqrt(best[k - 1]); r++) {
+                for (int y = cy - r; y <= cy + r; y++) {
+                    if (y < 0 || y >= cells) continue;
+                    for (int x = cx - r; x <= cx + r; x++) {
+                        if (x < 0 || x >= cells || (Math.abs(x - cx) != r && Math.abs(y - cy) != r)) continue;
+                        int c = y * cells + x;
+                        for (int i = cellStart[c]; i < cellStart[c + 1]; i++) {
+                            int u = byCell[i];
+                            if (u == v) continue;
+                            double dx = xs[u] - xs[v], dy = ys[u] - ys[v], d = dx * dx + dy * dy;
+                            // insertion into the k best so far
+                            int j = k - 1;
+                            if (d >= best[j]) continue;
+                            while (j > 0 && best[j - 1] > d) {
+                                best[j] = best[j - 1];
+                                near[v * k + j] = near[v * k + j - 1];
+                                j--;
+                            }
+                            best[j] = d;
+                            near[v * k + j] = u;
+                        }
+                    }
+                }
+            }
+        }
+
+        int[] from = new int[n * k], to = new int[n * k], dist = new int[n * k];
+        int roads = 0;
+        for (int v = 0; v < n; v++) {
+            for (int j = 0; j < k; j++) {
+                int u = near[v * k + j];
+                if (u < 0 || (u < v && isNear(near, k, u, v))) continue;
+                double dx = xs[u] - xs[v], dy = ys[u] - ys[v];
+                from[roads] = v;
+                to[roads] = u;
+                dist[roads++] = (int) Math.ceil(Math.sqrt(dx * dx + dy * dy) * (1 + 0.5 * rnd.nextDouble()));
+            }
+        }
+        return SmartCityRoutePlanner.CompiledGraph.fromEdges(names(n), xs, ys, Arrays.copyOf(from, roads),
+                                                             Arrays.copyOf(to, roads), Arrays.copyOf(dist, roads));
+    }
+
+    private static boolean isNear(int[] near, int k, int v, int u) {
+        for (int j = 0; j < k; j++) if (near[v * k + j] == u) return true;
+        return false;
+    }
+
+    private static String[] names(int n) {
+        String[] names = new String[n];
+        for (int v = 0; v < n; v++) names[v] = "v" + v;
+        return names;
+    }
+}
@@ -0,0 +1,32 @@
+package datasorter;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one LinearSearch call.
+ */
+@Name("ccs2300.Search")
+@Label("Search")
+@Category({"CCS2300", "Algorithms"})
+@Description("One search call with its input size and elements compared")
+@StackTrace(false)
+public class SearchEvent extends Event {
+
+    @Label("Algorithm")
+    public String algorithm;
+
+    @Label("Input Size")
+    public int inputSize;
+
+    @Label("Comparisons")
+    public long comparisons;
+
+    @Label("Result")
+    @Description("Index found (-1 if absent) or number of matches")
+    public int result;
+}
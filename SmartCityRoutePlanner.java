@@ -1,5 +1,21 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
 
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
 /**
  * ============================================================
  *  Module 1: Smart City Route Planner
@@ -18,12 +34,21 @@ public class SmartCityRoutePlanner {
     static class BSTNode {
         String name;
         String type;          // e.g. Hospital, Park, Station …
+        double x, y;          // map position in km, NaN when unknown
         BSTNode left, right;
 
         BSTNode(String name, String type) {
+            this(name, type, Double.NaN, Double.NaN);
+        }
+
+        BSTNode(String name, String type, double x, double y) {
             this.name = name;
             this.type = type;
+            this.x    = x;
+            this.y    = y;
         }
+
+        boolean hasPosition() { return !Double.isNaN(x) && !Double.isNaN(y); }
     }
 
     // =========================================================
@@ -33,15 +58,23 @@ public class SmartCityRoutePlanner {
         BSTNode root;
 
         void insert(String name, String type) {
-            root = insertRec(root, name, type);
+            insert(name, type, Double.NaN, Double.NaN);
+        }
+
+        void insert(String name, String type, double x, double y) {
+            root = insertRec(root, name, type, x, y);
         }
 
-        private BSTNode insertRec(BSTNode node, String name, String type) {
-            if (node == null) return new BSTNode(name, type);
+        private BSTNode insertRec(BSTNode node, String name, String type, double x, double y) {
+            if (node == null) return new BSTNode(name, type, x, y);
             int cmp = name.compareToIgnoreCase(node.name);
-            if (cmp < 0)       node.left  = insertRec(node.left,  name, type);
-            else if (cmp > 0)  node.right = insertRec(node.right, name, type);
-            else               node.type  = type;   // update type if exists
+            if (cmp < 0)       node.left  = insertRec(node.left,  name, type, x, y);
+            else if (cmp > 0)  node.right = insertRec(node.right, name, type, x, y);
+            else {             // update type and position if exists
+                node.type = type;
+                node.x    = x;
+                node.y    = y;
+            }
             return node;
         }
 
@@ -79,6 +112,8 @@ public class SmartCityRoutePlanner {
                 while (succ.left != null) succ = succ.left;
                 node.name = succ.name;
                 node.type = succ.type;
+                node.x    = succ.x;
+                node.y    = succ.y;
                 node.right = deleteRec(node.right, succ.name);
             }
             return node;
@@ -111,22 +146,98 @@ public class SmartCityRoutePlanner {
         }
     }
 
+    // Flight Recorder event for one traversal / route query; free when no
+    // recording is running
+    @Name("ccs2300.Route")
+    @Label("Route Query")
+    @Category({"CCS2300", "Algorithms"})
+    @Description("One BFS, DFS or shortest-path query on the city graph")
+    @StackTrace(false)
+    static class RouteEvent extends Event {
+        @Label("Algorithm")
+        String algorithm;
+
+        @Label("Input Size")
+        @Description("Vertices in the graph")
+        int inputSize;
+
+        @Label("Comparisons")
+        @Description("Edges examined")
+        long comparisons;
+
+        @Label("Nodes Settled")
+        int nodesSettled;
+
+        void record(String algorithm, int vertices, long edges, int settled) {
+            end();
+            if (shouldCommit()) {
+                this.algorithm    = algorithm;
+                this.inputSize    = vertices;
+                this.comparisons  = edges;
+                this.nodesSettled = settled;
+                commit();
+            }
+        }
+
+        // traversal: the edges examined are counted only when the event is
+        // committed, after its duration has ended
+        void record(String algorithm, CompiledGraph g, int[] order) {
+            end();
+            if (shouldCommit()) {
+                this.algorithm    = algorithm;
+                this.inputSize    = g.size();
+                this.comparisons  = g.degreeSum(order);
+                this.nodesSettled = order.length;
+                commit();
+            }
+        }
+    }
+
+    // shortest-path searches offered by CityGraph
+    enum RouteAlgorithm {
+        DIJKSTRA     ("Dijkstra",       "shortestPath"),
+        BIDIRECTIONAL("Bidirectional",  "bidirectionalShortestPath"),
+        ASTAR        ("A*",             "aStar"),
+        ALT          ("A* + landmarks", "alt"),
+        HIERARCHY    ("Hierarchy (CH)", "contractionHierarchy");
+
+        final String label;
+        final String eventName;    // RouteEvent algorithm
+
+        RouteAlgorithm(String label, String eventName) {
+            this.label     = label;
+            this.eventName = eventName;
+        }
+    }
+
     static class CityGraph {
         // adjacency list
         Map<String, List<Edge>> adj = new LinkedHashMap<>();
+        // {x, y} in km of the locations whose position is known
+        Map<String, double[]> position = new HashMap<>();
 
         boolean addVertex(String name) {
             if (adj.containsKey(name)) return false;
             adj.put(name, new ArrayList<>());
+            compiled = null;
+            return true;
+        }
+
+        // x, y may be NaN when the position is unknown
+        boolean addVertex(String name, double x, double y) {
+            if (!addVertex(name)) return false;
+            if (!Double.isNaN(x) && !Double.isNaN(y)) position.put(name, new double[] {x, y});
             return true;
         }
 
         boolean removeVertex(String name) {
             if (!adj.containsKey(name)) return false;
             adj.remove(name);
+            position.remove(name);
             // remove all edges pointing to this vertex
             for (List<Edge> edges : adj.values())
                 edges.removeIf(e -> e.to.equals(name));
+            compiled = null;
             return true;
         }
 
@@ -136,6 +247,7 @@ public class SmartCityRoutePlanner {
             for (Edge e : adj.get(from)) if (e.to.equals(to)) return false;
             adj.get(from).add(new Edge(to,   dist));
             adj.get(to)  .add(new Edge(from, dist));
+            compiled = null;
             return true;
         }
 
@@ -143,6 +255,7 @@ public class SmartCityRoutePlanner {
             if (!adj.containsKey(from) || !adj.containsKey(to)) return false;
             boolean r1 = adj.get(from).removeIf(e -> e.to.equals(to));
             boolean r2 = adj.get(to)  .removeIf(e -> e.to.equals(from));
+            if (r1 || r2) compiled = null;
             return r1 || r2;
         }
 
@@ -163,6 +276,32 @@ public class SmartCityRoutePlanner {
             }
         }
 
+        // --------------------------------------------------
+        // Queries run on the compiled (CSR) form, rebuilt after
+        // the first query that follows a change to the graph
+        // --------------------------------------------------
+        private CompiledGraph compiled;
+
+        CompiledGraph compile() {
+            if (compiled == null) compiled = CompiledGraph.of(adj, position);
+            return compiled;
+        }
+
+        // --------------------------------------------------
+        // Contraction hierarchy files (see main: --build-hierarchy
+        // preprocesses offline, --hierarchy loads at startup). A loaded
+        // hierarchy lasts until the map is edited; after that it is
+        // rebuilt on the next hierarchy query.
+        // --------------------------------------------------
+        void saveHierarchy(Path file) throws IOException {
+            compile().hierarchy().save(file);
+        }
+
+        void loadHierarchy(Path file) throws IOException {
+            CompiledGraph g = compile();
+            g.useHierarchy(ContractionHierarchy.load(file, g));
+        }
+
         // --------------------------------------------------
         // BFS from source  (uses Queue)
         // --------------------------------------------------
@@ -171,21 +310,13 @@ public class SmartCityRoutePlanner {
                 System.out.println("  Location not found.");
                 return;
             }
-            Queue<String> queue   = new LinkedList<>();
-            Set<String>   visited = new LinkedHashSet<>();
-            queue.add(start);
-            visited.add(start);
+            CompiledGraph g = compile();
+            RouteEvent event = new RouteEvent();
+            event.begin();
+            int[] order = g.bfs(g.idOf(start));
+            event.record("bfs", g, order);
             System.out.print("  BFS traversal: ");
-            while (!queue.isEmpty()) {
-                String cur = queue.poll();
-                System.out.print(cur + " ");
-                for (Edge e : adj.get(cur)) {
-                    if (!visited.contains(e.to)) {
-                        visited.add(e.to);
-                        queue.add(e.to);
-                    }
-                }
-            }
+            for (int v : order) System.out.print(g.names[v] + " ");
             System.out.println();
         }
 
@@ -197,22 +328,13 @@ public class SmartCityRoutePlanner {
                 System.out.println("  Location not found.");
                 return;
             }
-            Deque<String> stack   = new ArrayDeque<>();
-            Set<String>   visited = new LinkedHashSet<>();
-            stack.push(start);
+            CompiledGraph g = compile();
+            RouteEvent event = new RouteEvent();
+            event.begin();
+            int[] order = g.dfs(g.idOf(start));
+            event.record("dfs", g, order);
             System.out.print("  DFS traversal: ");
-            while (!stack.isEmpty()) {
-                String cur = stack.pop();
-                if (visited.contains(cur)) continue;
-                visited.add(cur);
-                System.out.print(cur + " ");
-                List<Edge> neighbours = new ArrayList<>(adj.get(cur));
-                // push in reverse so left-most is processed first
-                Collections.reverse(neighbours);
-                for (Edge e : neighbours)
-                    if (!visited.contains(e.to))
-                        stack.push(e.to);
-            }
+            for (int v : order) System.out.print(g.names[v] + " ");
             System.out.println();
         }
 
@@ -220,43 +342,1152 @@ public class SmartCityRoutePlanner {
         // Dijkstra's shortest path  (bonus – commonly useful)
         // --------------------------------------------------
         void shortestPath(String src, String dst) {
+            shortestPath(src, dst, RouteAlgorithm.DIJKSTRA);
+        }
+
+        // every algorithm finds a shortest route; they differ in how many
+        // locations they settle on the way (see CompiledGraph)
+        void shortestPath(String src, String dst, RouteAlgorithm algorithm) {
+            Route route = route(src, dst, algorithm);
+            if (route == null) {
+                System.out.println("  One or both locations not found.");
+                return;
+            }
+            if (route.path.length == 0) {
+                System.out.println("  No path found between " + src + " and " + dst);
+                return;
+            }
+
+            CompiledGraph g = compile();
+            if (algorithm == RouteAlgorithm.ASTAR && !g.hasPositions()) {
+                System.out.println("  (Not every location has a position: A* runs as plain Dijkstra)");
+            }
+            StringJoiner path = new StringJoiner(" -> ");
+            for (int v : route.path) path.add(g.names[v]);
+            System.out.print("  Shortest path: ");
+            System.out.println(path
+                + "  |  Total distance: " + route.distance + " km"
+                + "  |  Nodes settled: " + route.settled);
+        }
+
+        // runs every search and prints their cost side by side; each one is
+        // run COMPARE_WARMUP times first (class loading, lambda bootstrap,
+        // first JIT pass) and the time is the best of COMPARE_RUNS runs
+        static final int COMPARE_WARMUP = 5;
+        static final int COMPARE_RUNS = 10;
+
+        void compareRoutes(String src, String dst) {
             if (!adj.containsKey(src) || !adj.containsKey(dst)) {
                 System.out.println("  One or both locations not found.");
                 return;
             }
-            Map<String, Integer> dist  = new HashMap<>();
-            Map<String, String>  prev  = new HashMap<>();
-            PriorityQueue<String> pq   = new PriorityQueue<>(
-                Comparator.comparingInt(v -> dist.getOrDefault(v, Integer.MAX_VALUE)));
-
-            for (String v : adj.keySet()) dist.put(v, Integer.MAX_VALUE);
-            dist.put(src, 0);
-            pq.add(src);
-
-            while (!pq.isEmpty()) {
-                String u = pq.poll();
-                if (u.equals(dst)) break;
-                for (Edge e : adj.get(u)) {
-                    int nd = dist.get(u) + e.distance;
-                    if (nd < dist.get(e.to)) {
-                        dist.put(e.to, nd);
-                        prev.put(e.to, u);
-                        pq.add(e.to);
+            CompiledGraph g = compile();
+            if (!g.hasPositions()) {
+                System.out.println("  (Not every location has a position: A* runs as plain Dijkstra)");
+            }
+            g.landmarks();   // precomputed once, not part of the ALT time
+            g.hierarchy();   // likewise for the contraction hierarchy
+            int s = g.idOf(src), t = g.idOf(dst);
+            System.out.printf("  %-15s | %-13s | %-14s | %-10s%n", "Algorithm", "Nodes settled", "Edges examined", "Best (us)");
+            for (RouteAlgorithm algorithm : RouteAlgorithm.values()) {
+                Route route = null;
+                for (int i = 0; i < COMPARE_WARMUP; i++) route = search(g, s, t, algorithm);
+                long best = Long.MAX_VALUE;
+                for (int i = 0; i < COMPARE_RUNS; i++) {
+                    long start = System.nanoTime();
+                    route = search(g, s, t, algorithm);
+                    best = Math.min(best, System.nanoTime() - start);
+                }
+                System.out.printf("  %-15s | %13d | %14d | %10d%n", algorithm.label,
+                                  route.settled, route.edgesExamined, best / 1000);
+            }
+        }
+
+        // null if either location is unknown
+        private Route route(String src, String dst, RouteAlgorithm algorithm) {
+            if (!adj.containsKey(src) || !adj.containsKey(dst)) return null;
+            CompiledGraph g = compile();
+            int s = g.idOf(src), t = g.idOf(dst);
+            if (algorithm == RouteAlgorithm.ALT) g.landmarks();
+            if (algorithm == RouteAlgorithm.HIERARCHY) g.hierarchy();
+            RouteEvent event = new RouteEvent();
+            event.begin();
+            Route route = search(g, s, t, algorithm);
+            event.record(algorithm.eventName, g.size(), route.edgesExamined, route.settled);
+            return route;
+        }
+
+        // no RouteEvent; used for repeated timing runs
+        static Route search(CompiledGraph g, int s, int t, RouteAlgorithm algorithm) {
+            switch (algorithm) {
+                case BIDIRECTIONAL: return g.bidirectionalShortestPath(s, t);
+                case ASTAR:         return g.aStar(s, t);
+                case ALT:           return g.alt(s, t);
+                case HIERARCHY:     return g.hierarchy().shortestPath(s, t);
+                default:            return g.shortestPath(s, t);
+            }
+        }
+    }
+
+    // =========================================================
+    // 3b. COMPILED GRAPH  (compressed sparse row, int ids)
+    // =========================================================
+    // Read-only snapshot for queries. Names are interned to dense ids
+    // 0..n-1 and the neighbours of v are targets[offsets[v] .. offsets[v+1])
+    // with matching weights, in adjacency-list order. Traversals only touch
+    // int arrays, so there is no string hashing and no Edge object per hop;
+    // a graph costs 4 bytes per vertex plus 16 per road (both directions).
+    static class CompiledGraph {
+        static final int DEFAULT_LANDMARKS = 8;
+
+        final String[] names;     // id -> name
+        final int[]    offsets;   // n + 1 entries
+        final int[]    targets;
+        final int[]    weights;
+        final double[] xs, ys;    // positions in km, NaN when unknown
+        // largest s with s * straight-line distance <= road length on every
+        // road; 0 when some vertex has no position
+        final double   kmPerUnit;
+        private final int[] byName;   // ids sorted by name, for idOf
+        private Workspace workspace;  // reused by shortestPath(src, dst)
+        private Workspace backward;   // second one for bidirectionalShortestPath
+        private int[] landmarks;      // chosen by selectLandmarks
+        // landmarkDist[v * landmarks.length + i]: road distance between
+        // landmark i and v, Integer.MAX_VALUE when not connected
+        private int[] landmarkDist;
+        private ContractionHierarchy hierarchy;
+
+        private CompiledGraph(String[] names, int[] offsets, int[] targets, int[] weights, double[] xs, double[] ys) {
+            this.names   = names;
+            this.offsets = offsets;
+            this.targets = targets;
+            this.weights = weights;
+            this.xs      = xs;
+            this.ys      = ys;
+            this.kmPerUnit = boundScale();
+            Integer[] ids = new Integer[names.length];
+            for (int i = 0; i < ids.length; i++) ids[i] = i;
+            Arrays.sort(ids, Comparator.comparing(i -> names[i]));
+            byName = new int[ids.length];
+            for (int i = 0; i < ids.length; i++) byName[i] = ids[i];
+        }
+
+        static CompiledGraph of(Map<String, List<Edge>> adj, Map<String, double[]> position) {
+            int n = adj.size();
+            String[] names = adj.keySet().toArray(new String[0]);
+            Map<String, Integer> id = new HashMap<>();
+            for (int i = 0; i < n; i++) id.put(names[i], i);
+            double[] xs = new double[n], ys = new double[n];
+            for (int i = 0; i < n; i++) {
+                double[] p = position.get(names[i]);
+                xs[i] = p != null ? p[0] : Double.NaN;
+                ys[i] = p != null ? p[1] : Double.NaN;
+            }
+            int[] offsets = new int[n + 1];
+            for (int i = 0; i < n; i++) offsets[i + 1] = offsets[i] + adj.get(names[i]).size();
+            int[] targets = new int[offsets[n]];
+            int[] weights = new int[offsets[n]];
+            for (int i = 0; i < n; i++) {
+                int k = offsets[i];
+                for (Edge e : adj.get(names[i])) {
+                    targets[k]   = id.get(e.to);
+                    weights[k++] = e.distance;
+                }
+            }
+            return new CompiledGraph(names, offsets, targets, weights, xs, ys);
+        }
+
+        // Undirected graph straight from an edge list (road i joins from[i]
+        // and to[i]), for graphs too large to build through CityGraph
+        static CompiledGraph fromEdges(String[] names, int[] from, int[] to, int[] dist) {
+            double[] unknown = new double[names.length];
+            Arrays.fill(unknown, Double.NaN);
+            return fromEdges(names, unknown, unknown, from, to, dist);
+        }
+
+        // same, with vertex v at (xs[v], ys[v]) km
+        static CompiledGraph fromEdges(String[] names, double[] xs, double[] ys, int[] from, int[] to, int[] dist) {
+            int n = names.length;
+            int[] offsets = new int[n + 1];
+            for (int i = 0; i < from.length; i++) {
+                offsets[from[i] + 1]++;
+                offsets[to[i] + 1]++;
+            }
+            for (int v = 0; v < n; v++) offsets[v + 1] += offsets[v];
+            int[] fill    = Arrays.copyOf(offsets, n);
+            int[] targets = new int[offsets[n]];
+            int[] weights = new int[offsets[n]];
+            for (int i = 0; i < from.length; i++) {
+                int a = from[i], b = to[i];
+                targets[fill[a]]   = b;
+                weights[fill[a]++] = dist[i];
+                targets[fill[b]]   = a;
+                weights[fill[b]++] = dist[i];
+            }
+            return new CompiledGraph(names.clone(), offsets, targets, weights, xs.clone(), ys.clone());
+        }
+
+        int size() { return names.length; }
+
+        boolean hasPositions() { return kmPerUnit > 0; }
+
+        // Roads may wind but are never shorter than kmPerUnit times the
+        // straight line, which makes kmPerUnit * straight-line distance a
+        // lower bound on the remaining route for A*
+        private double boundScale() {
+            for (int v = 0; v < names.length; v++) {
+                if (Double.isNaN(xs[v]) || Double.isNaN(ys[v])) return 0;
+            }
+            double scale = Double.POSITIVE_INFINITY;
+            for (int v = 0; v < names.length; v++) {
+                for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                    double line = straightLine(v, targets[e]);
+                    if (line > 0) scale = Math.min(scale, weights[e] / line);
+                }
+            }
+            if (scale == Double.POSITIVE_INFINITY) return 0;
+            // keeps rounding from pushing the bound past a road's length
+            return scale * (1 - 1e-9);
+        }
+
+        private double straightLine(int a, int b) {
+            double dx = xs[a] - xs[b], dy = ys[a] - ys[b];
+            return Math.sqrt(dx * dx + dy * dy);
+        }
+
+        // id of name, or -1
+        int idOf(String name) {
+            int lo = 0, hi = byName.length - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                int c = names[byName[mid]].compareTo(name);
+                if (c < 0) lo = mid + 1;
+                else if (c > 0) hi = mid - 1;
+                else return byName[mid];
+            }
+            return -1;
+        }
+
+        // edges leaving the given vertices
+        long degreeSum(int[] vertices) {
+            long sum = 0;
+            for (int v : vertices) sum += offsets[v + 1] - offsets[v];
+            return sum;
+        }
+
+        // vertices in BFS order from start
+        int[] bfs(int start) {
+            int[] queue = new int[names.length];
+            boolean[] visited = new boolean[names.length];
+            int head = 0, tail = 0;
+            queue[tail++] = start;
+            visited[start] = true;
+            while (head < tail) {
+                int cur = queue[head++];
+                for (int e = offsets[cur]; e < offsets[cur + 1]; e++) {
+                    int t = targets[e];
+                    if (!visited[t]) {
+                        visited[t] = true;
+                        queue[tail++] = t;
                     }
                 }
             }
+            return Arrays.copyOf(queue, tail);
+        }
 
-            if (dist.get(dst) == Integer.MAX_VALUE) {
-                System.out.println("  No path found between " + src + " and " + dst);
-                return;
+        // vertices in DFS order from start, left-most neighbour first
+        int[] dfs(int start) {
+            // each vertex is pushed at most once per incoming edge
+            int[] stack = new int[targets.length + 1];
+            int[] order = new int[names.length];
+            boolean[] visited = new boolean[names.length];
+            int sp = 0, k = 0;
+            stack[sp++] = start;
+            while (sp > 0) {
+                int cur = stack[--sp];
+                if (visited[cur]) continue;
+                visited[cur] = true;
+                order[k++] = cur;
+                // push in reverse so left-most is processed first
+                for (int e = offsets[cur + 1] - 1; e >= offsets[cur]; e--) {
+                    if (!visited[targets[e]]) stack[sp++] = targets[e];
+                }
             }
+            return Arrays.copyOf(order, k);
+        }
 
-            // reconstruct path using a Stack
-            Deque<String> path = new ArrayDeque<>();
-            for (String at = dst; at != null; at = prev.get(at)) path.push(at);
-            System.out.print("  Shortest path: ");
-            System.out.println(String.join(" -> ", path)
-                + "  |  Total distance: " + dist.get(dst) + " km");
+        // Dijkstra in the graph's own workspace (not thread-safe; give each
+        // thread its own Workspace instead)
+        Route shortestPath(int src, int dst) {
+            if (workspace == null) workspace = new Workspace(names.length);
+            return shortestPath(src, dst, workspace);
+        }
+
+        // Dijkstra with an indexed binary heap: every vertex is in the heap
+        // at most once and a shorter distance moves it up in place
+        // (decrease-key). Stops as soon as dst is settled.
+        Route shortestPath(int src, int dst, Workspace ws) {
+            checkWorkspace(ws);
+            search(src, dst, ws, null);
+            return route(dst, ws);
+        }
+
+        // A* with the straight-line bound: settles locations in order of
+        // distance so far plus kmPerUnit * straight line to dst, so the
+        // search leans towards dst instead of growing a circle around src.
+        // Without positions the bound is 0 and this is plain Dijkstra.
+        Route aStar(int src, int dst) {
+            if (workspace == null) workspace = new Workspace(names.length);
+            return aStar(src, dst, workspace);
+        }
+
+        Route aStar(int src, int dst, Workspace ws) {
+            checkWorkspace(ws);
+            if (!hasPositions()) return shortestPath(src, dst, ws);
+            double tx = xs[dst], ty = ys[dst], scale = kmPerUnit;
+            search(src, dst, ws, v -> {
+                double dx = xs[v] - tx, dy = ys[v] - ty;
+                return (int) (scale * Math.sqrt(dx * dx + dy * dy));
+            });
+            return route(dst, ws);
+        }
+
+        // A* with landmark bounds (ALT): for any landmark L the triangle
+        // inequality gives d(v, dst) >= |d(L, dst) - d(L, v)|, and the bound
+        // is the best of these over all landmarks. Needs no positions and is
+        // usually much tighter than the straight line, at the price of one
+        // full Dijkstra per landmark (landmarks()) and 4 bytes per vertex
+        // per landmark.
+        Route alt(int src, int dst) {
+            if (workspace == null) workspace = new Workspace(names.length);
+            return alt(src, dst, workspace);
+        }
+
+        Route alt(int src, int dst, Workspace ws) {
+            checkWorkspace(ws);
+            int[] marks = landmarks();
+            int k = marks.length;
+            int[] ld = landmarkDist;
+            int[] toDst = Arrays.copyOfRange(ld, dst * k, dst * k + k);
+            search(src, dst, ws, v -> {
+                int best = 0;
+                for (int i = 0, o = v * k; i < k; i++, o++) {
+                    int a = ld[o], b = toDst[i];
+                    if (a != Integer.MAX_VALUE && b != Integer.MAX_VALUE) {
+                        best = Math.max(best, Math.abs(a - b));
+                    }
+                }
+                return best;
+            });
+            return route(dst, ws);
+        }
+
+        // landmark ids, selecting DEFAULT_LANDMARKS of them on first use
+        int[] landmarks() {
+            if (landmarks == null) selectLandmarks(DEFAULT_LANDMARKS);
+            return landmarks;
+        }
+
+        // contraction hierarchy, built on first use unless one was loaded
+        ContractionHierarchy hierarchy() {
+            if (hierarchy == null) hierarchy = ContractionHierarchy.build(this);
+            return hierarchy;
+        }
+
+        // installs a hierarchy loaded with ContractionHierarchy.load
+        void useHierarchy(ContractionHierarchy h) {
+            if (h.graphChecksum != ContractionHierarchy.checksum(this)) {
+                throw new IllegalArgumentException("Hierarchy was built for a different graph");
+            }
+            hierarchy = h;
+        }
+
+        // Farthest-point selection: the landmarks are shared out between the
+        // connected components by size (largest first for the remainder), so
+        // small islands of a disconnected map do not use them up. Within a
+        // component the first landmark is the vertex farthest from an
+        // arbitrary one, each next one the vertex farthest from the
+        // component's landmarks so far. Landmarks on the rim of the map
+        // bound the most routes well.
+        void selectLandmarks(int count) {
+            int n = names.length;
+            count = Math.min(count, n);
+            Workspace ws = new Workspace(n);
+            int[] marks = new int[count];
+            int[] dist = new int[n * count];
+            int[] nearest = new int[n];   // distance to the closest landmark so far
+            Arrays.fill(nearest, Integer.MAX_VALUE);
+
+            // components, labelled with one shared BFS queue
+            int[] comp = new int[n];
+            Arrays.fill(comp, -1);
+            int[] queue = new int[n];
+            int[] first = new int[n], size = new int[n];   // per component
+            int comps = 0;
+            for (int s = 0; s < n; s++) {
+                if (comp[s] != -1) continue;
+                int head = 0, tail = 0;
+                queue[tail++] = s;
+                comp[s] = comps;
+                while (head < tail) {
+                    int cur = queue[head++];
+                    for (int e = offsets[cur]; e < offsets[cur + 1]; e++) {
+                        if (comp[targets[e]] == -1) {
+                            comp[targets[e]] = comps;
+                            queue[tail++] = targets[e];
+                        }
+                    }
+                }
+                first[comps] = s;
+                size[comps++] = tail;
+            }
+            Integer[] bySize = new Integer[comps];
+            for (int c = 0; c < comps; c++) bySize[c] = c;
+            Arrays.sort(bySize, (a, b) -> Integer.compare(size[b], size[a]));
+            int[] quota = new int[comps];
+            int left = count;
+            for (int c = 0; c < comps; c++) {
+                quota[c] = (int) ((long) count * size[c] / n);
+                left -= quota[c];
+            }
+            for (int i = 0; left > 0; i = (i + 1) % comps, left--) quota[bySize[i]]++;
+
+            int i = 0;
+            for (int c : bySize) {
+                if (quota[c] == 0) break;
+                search(first[c], -1, ws, null);
+                int next = first[c];
+                for (int v = 0; v < n; v++) {
+                    if (ws.seen(v) && ws.dist[v] > ws.dist[next]) next = v;
+                }
+                for (int k = 0; k < quota[c]; k++, i++) {
+                    marks[i] = next;
+                    search(next, -1, ws, null);
+                    for (int v = 0; v < n; v++) {
+                        int d = ws.seen(v) ? ws.dist[v] : Integer.MAX_VALUE;
+                        dist[v * count + i] = d;
+                        nearest[v] = Math.min(nearest[v], d);
+                    }
+                    for (int v = 0; v < n; v++) {
+                        if (comp[v] == c && nearest[v] > nearest[next]) next = v;
+                    }
+                }
+            }
+            landmarks    = marks;
+            landmarkDist = dist;
+        }
+
+        private void checkWorkspace(Workspace ws) {
+            if (ws.dist.length != names.length) {
+                throw new IllegalArgumentException("Workspace is for " + ws.dist.length + " vertices, graph has " + names.length);
+            }
+        }
+
+        // Settles vertices in order of key = dist + bound(v) until dst is
+        // settled (dst = -1: every vertex src reaches). A null bound is
+        // Dijkstra. The bounds used here are consistent (bound(u) <= road
+        // u-v + bound(v)), so a settled vertex never improves again and
+        // the first time dst is settled its distance is final.
+        private void search(int src, int dst, Workspace ws, LowerBound bound) {
+            ws.nextQuery();
+            ws.reach(src, 0, -1);
+            ws.bound[src] = bound == null ? 0 : bound.toTarget(src);
+            ws.push(src, ws.bound[src]);
+            while (ws.size > 0) {
+                int u = ws.pop();
+                ws.settled++;
+                if (u == dst) break;
+                int du = ws.dist[u];
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    ws.edges++;
+                    int t  = targets[e];
+                    int nd = du + weights[e];
+                    if (!ws.seen(t)) {
+                        ws.reach(t, nd, u);
+                        ws.bound[t] = bound == null ? 0 : bound.toTarget(t);
+                        ws.push(t, nd + ws.bound[t]);
+                    } else if (ws.pos[t] >= 0 && nd < ws.dist[t]) {
+                        ws.reach(t, nd, u);
+                        ws.decreaseKey(t, nd + ws.bound[t]);
+                    }
+                }
+            }
+        }
+
+        // route to dst found by the last search in ws
+        private static Route route(int dst, Workspace ws) {
+            if (!ws.seen(dst)) {
+                return new Route(Integer.MAX_VALUE, new int[0], ws.settled, ws.edges);
+            }
+            int hops = 0;
+            for (int at = dst; at != -1; at = ws.prev[at]) hops++;
+            int[] path = new int[hops];
+            for (int at = dst; at != -1; at = ws.prev[at]) path[--hops] = at;
+            return new Route(ws.dist[dst], path, ws.settled, ws.edges);
+        }
+
+        Route bidirectionalShortestPath(int src, int dst) {
+            if (workspace == null) workspace = new Workspace(names.length);
+            if (backward == null) backward = new Workspace(names.length);
+            return bidirectionalShortestPath(src, dst, workspace, backward);
+        }
+
+        // Bidirectional Dijkstra: a forward search from src and a backward
+        // search from dst (the same search, since roads are undirected). Each
+        // step settles the side whose next vertex is closer. Every scanned
+        // edge into a vertex the other side has reached is a candidate route
+        // (best length mu, joined by edge meetF -> meetB); once the two
+        // queue minimums add up to mu, no shorter route can remain.
+        Route bidirectionalShortestPath(int src, int dst, Workspace fwd, Workspace bwd) {
+            if (fwd == bwd || fwd.dist.length != names.length || bwd.dist.length != names.length) {
+                throw new IllegalArgumentException("Need two distinct workspaces for " + names.length + " vertices");
+            }
+            if (src == dst) return new Route(0, new int[] {src}, 1, 0);
+            fwd.nextQuery();
+            bwd.nextQuery();
+            fwd.reach(src, 0, -1);
+            fwd.push(src, 0);
+            bwd.reach(dst, 0, -1);
+            bwd.push(dst, 0);
+            long mu = Long.MAX_VALUE;
+            int meetF = -1, meetB = -1;
+            int settled = 0;
+            long edges = 0;
+            while (fwd.size > 0 && bwd.size > 0) {
+                int minF = fwd.minKey(), minB = bwd.minKey();
+                if ((long) minF + minB >= mu) break;
+                boolean forward = minF <= minB;
+                Workspace ws = forward ? fwd : bwd, other = forward ? bwd : fwd;
+                int u = ws.pop();
+                settled++;
+                int du = ws.dist[u];
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    edges++;
+                    int t  = targets[e];
+                    int nd = du + weights[e];
+                    if (!ws.seen(t)) {
+                        ws.reach(t, nd, u);
+                        ws.push(t, nd);
+                    } else if (ws.pos[t] >= 0 && nd < ws.dist[t]) {
+                        ws.reach(t, nd, u);
+                        ws.decreaseKey(t, nd);
+                    }
+                    if (other.seen(t) && (long) nd + other.dist[t] < mu) {
+                        mu = (long) nd + other.dist[t];
+                        meetF = forward ? u : t;
+                        meetB = forward ? t : u;
+                    }
+                }
+            }
+            if (meetF == -1) return new Route(Integer.MAX_VALUE, new int[0], settled, edges);
+
+            // src .. meetF along the forward tree, then meetB .. dst along the backward one
+            int hops = 0;
+            for (int at = meetF; at != -1; at = fwd.prev[at]) hops++;
+            for (int at = meetB; at != -1; at = bwd.prev[at]) hops++;
+            int[] path = new int[hops];
+            int k = 0;
+            for (int at = meetF; at != -1; at = fwd.prev[at]) path[k++] = at;
+            for (int i = 0, j = k - 1; i < j; i++, j--) {
+                int tmp = path[i];
+                path[i] = path[j];
+                path[j] = tmp;
+            }
+            for (int at = meetB; at != -1; at = bwd.prev[at]) path[k++] = at;
+            return new Route((int) mu, path, settled, edges);
+        }
+    }
+
+    // lower bound on the road distance from v to the current target
+    interface LowerBound {
+        int toTarget(int v);
+    }
+
+    // =========================================================
+    // 3c. DIJKSTRA WORKSPACE  (reused across queries)
+    // =========================================================
+    // Per-vertex arrays of one query. Instead of clearing them between
+    // queries, each query gets a new generation number and a vertex whose
+    // stamp is older counts as unreached, so a query only touches the
+    // vertices it reaches.
+    static class Workspace {
+        final int[]  dist;
+        final int[]  prev;
+        final int[]  pos;      // index in heap, or -1 once settled
+        final int[]  stamp;    // generation that last reached the vertex
+        final int[]  bound;    // A* lower bound to the target, 0 for Dijkstra
+        // (key << 32 | vertex): the key sits next to the vertex, so sifting
+        // compares heap entries without looking dist up at random
+        final long[] heap;
+        int size;
+        int generation;
+        int  settled;          // counters of the current query
+        long edges;
+
+        Workspace(int vertices) {
+            dist  = new int[vertices];
+            prev  = new int[vertices];
+            pos   = new int[vertices];
+            stamp = new int[vertices];
+            bound = new int[vertices];
+            heap  = new long[vertices];
+        }
+
+        void nextQuery() {
+            size    = 0;
+            settled = 0;
+            edges   = 0;
+            if (++generation == Integer.MAX_VALUE) {
+                Arrays.fill(stamp, 0);
+                generation = 1;
+            }
+        }
+
+        boolean seen(int v) { return stamp[v] == generation; }
+
+        void reach(int v, int d, int from) {
+            stamp[v] = generation;
+            dist[v]  = d;
+            prev[v]  = from;
+        }
+
+        // key is dist[v] for Dijkstra, dist[v] + bound[v] for A*
+        void push(int v, int key) {
+            siftUp(size++, (long) key << 32 | v);
+        }
+
+        // v is in the heap and its key just decreased
+        void decreaseKey(int v, int key) {
+            siftUp(pos[v], (long) key << 32 | v);
+        }
+
+        // key of the next vertex pop() returns; size must be > 0
+        int minKey() {
+            return (int) (heap[0] >>> 32);
+        }
+
+        int pop() {
+            int top = (int) heap[0];
+            pos[top] = -1;
+            long last = heap[--size];
+            if (size > 0) siftDown(last);
+            return top;
+        }
+
+        private void siftUp(int i, long x) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                long p = heap[parent];
+                if (p <= x) break;
+                heap[i] = p;
+                pos[(int) p] = i;
+                i = parent;
+            }
+            heap[i] = x;
+            pos[(int) x] = i;
+        }
+
+        // places x, taken from the end of the heap, starting at the root
+        private void siftDown(long x) {
+            int i = 0;
+            while (2 * i + 1 < size) {
+                int c = 2 * i + 1;
+                if (c + 1 < size && heap[c + 1] < heap[c]) c++;
+                long child = heap[c];
+                if (child >= x) break;
+                heap[i] = child;
+                pos[(int) child] = i;
+                i = c;
+            }
+            heap[i] = x;
+            pos[(int) x] = i;
+        }
+    }
+
+    // result of CompiledGraph.shortestPath
+    static class Route {
+        final int   distance;       // Integer.MAX_VALUE when unreachable
+        final int[] path;           // src .. dst, empty when unreachable
+        final int   settled;
+        final long  edgesExamined;
+
+        Route(int distance, int[] path, int settled, long edgesExamined) {
+            this.distance      = distance;
+            this.path          = path;
+            this.settled       = settled;
+            this.edgesExamined = edgesExamined;
+        }
+    }
+
+    // =========================================================
+    // 3d. CONTRACTION HIERARCHY  (preprocessed route queries)
+    // =========================================================
+    // Preprocessing contracts the vertices one by one, least important
+    // first: contracting v removes it from the remaining graph and adds a
+    // shortcut u-w (length d(u,v) + d(v,w), middle v) for each pair of its
+    // neighbours whose only shortest route runs through v. The rank of a
+    // vertex is its position in this order. Every shortest route then has
+    // a version in the graph plus shortcuts that first climbs and then
+    // descends in rank, so a query runs Dijkstra from both ends over
+    // upward edges only and settles a few hundred vertices even on large
+    // maps. Shortcuts are expanded back into roads via their middles.
+    //
+    // Built for one CompiledGraph (roads are undirected, so one upward
+    // graph serves both query directions) and stored with save / load, so
+    // the preprocessing can run once offline.
+    static class ContractionHierarchy {
+        // a witness search gives up after settling this many vertices and
+        // adds the shortcut; extra shortcuts cost space, never correctness
+        static final int WITNESS_SETTLE_LIMIT = 100;
+        // witness searches that only estimate a priority follow at most this
+        // many roads; the shortcuts actually added use unlimited hops
+        static final int SIMULATION_HOP_LIMIT = 3;
+        // after contracting a vertex with more neighbours than this (the
+        // dense core), the neighbours keep their last edge difference until
+        // they come up; the lazy update re-measures it then
+        static final int NEIGHBOUR_UPDATE_DEGREE = 16;
+        static final int FILE_MAGIC = 0x43434831;   // "CCH1"
+
+        final int[] rank;          // contraction order of each vertex
+        // upward graph in CSR form: the edges of v lead to higher ranks
+        final int[] upOffsets;
+        final int[] upTargets;
+        final int[] upWeights;
+        final int[] upMiddle;      // contracted vertex of a shortcut, -1 for a road
+        final long  graphChecksum; // of the CompiledGraph it was built for
+        private Workspace forward, backward;
+
+        private ContractionHierarchy(int[] rank, int[] upOffsets, int[] upTargets, int[] upWeights,
+                                     int[] upMiddle, long graphChecksum) {
+            this.rank          = rank;
+            this.upOffsets     = upOffsets;
+            this.upTargets     = upTargets;
+            this.upWeights     = upWeights;
+            this.upMiddle      = upMiddle;
+            this.graphChecksum = graphChecksum;
+        }
+
+        int size() { return rank.length; }
+
+        int shortcuts() {
+            int count = 0;
+            for (int m : upMiddle) if (m != -1) count++;
+            return count;
+        }
+
+        // ---------- preprocessing ----------
+        static ContractionHierarchy build(CompiledGraph g) {
+            return new Builder(g).build();
+        }
+
+        // The remaining graph as growable per-vertex lists. The next vertex
+        // to contract has the lowest priority: 2 * (shortcuts it would add
+        // - edges it removes) + neighbours already contracted + level, which
+        // spreads contraction evenly over the map. It is re-evaluated when
+        // it comes up and only contracted if it still beats the next one;
+        // its neighbours are re-evaluated after every contraction.
+        private static class Builder {
+            final CompiledGraph g;
+            final int n;
+            final int[][] to, len, mid;
+            final int[]   degree;
+            final int[]   contractedNeighbours;
+            final int[]   level;      // 1 + highest level of a contracted neighbour
+            final int[]   edgeDifference;   // shortcuts - edges at the last priority(v)
+            final Workspace witness;
+            final int[] target;       // == targetStamp: a neighbour the witness search looks for
+            final int[] hops;         // roads from the witness search source
+            int targetStamp;
+            // shortcuts found by the last contract(v, ...) call
+            int[] scFrom = new int[16], scTo = new int[16], scLen = new int[16];
+            int scCount;
+
+            Builder(CompiledGraph g) {
+                this.g = g;
+                n      = g.size();
+                to     = new int[n][];
+                len    = new int[n][];
+                mid    = new int[n][];
+                degree = new int[n];
+                contractedNeighbours = new int[n];
+                level  = new int[n];
+                edgeDifference = new int[n];
+                witness    = new Workspace(n);
+                target     = new int[n];
+                hops       = new int[n];
+                for (int v = 0; v < n; v++) {
+                    int cap = Math.max(4, g.offsets[v + 1] - g.offsets[v]);
+                    to[v]  = new int[cap];
+                    len[v] = new int[cap];
+                    mid[v] = new int[cap];
+                }
+                for (int v = 0; v < n; v++) {
+                    for (int e = g.offsets[v]; e < g.offsets[v + 1]; e++) {
+                        if (g.targets[e] != v) link(v, g.targets[e], g.weights[e], -1);
+                    }
+                }
+            }
+
+            ContractionHierarchy build() {
+                PriorityQueue<Long> queue = new PriorityQueue<>();
+                int[] current = new int[n];     // latest priority; older queue entries are skipped
+                for (int v = 0; v < n; v++) {
+                    current[v] = priority(v);
+                    queue.add(entry(current[v], v));
+                }
+                int[] rank = new int[n];
+                Arrays.fill(rank, -1);
+                int[] upCount = new int[n + 1];
+                int[][] upTo = new int[n][], upLen = new int[n][], upMid = new int[n][];
+                int next = 0;
+                while (!queue.isEmpty()) {
+                    long top = queue.poll();
+                    int v = (int) top;
+                    if (rank[v] != -1 || top != entry(current[v], v)) continue;
+                    current[v] = priority(v);
+                    if (!queue.isEmpty() && entry(current[v], v) > queue.peek()) {
+                        queue.add(entry(current[v], v));
+                        continue;
+                    }
+                    contract(v, Integer.MAX_VALUE);
+                    // what is left of v's list leads to vertices contracted later
+                    rank[v]   = next++;
+                    upTo[v]   = Arrays.copyOf(to[v],  degree[v]);
+                    upLen[v]  = Arrays.copyOf(len[v], degree[v]);
+                    upMid[v]  = Arrays.copyOf(mid[v], degree[v]);
+                    upCount[v + 1] = degree[v];
+                    for (int i = 0; i < degree[v]; i++) {
+                        int u = to[v][i];
+                        unlink(u, v);
+                        contractedNeighbours[u]++;
+                    }
+                    for (int i = 0; i < scCount; i++) {
+                        link(scFrom[i], scTo[i], scLen[i], v);
+                        link(scTo[i], scFrom[i], scLen[i], v);
+                    }
+                    // the neighbours lost an edge and may have gained shortcuts
+                    for (int i = 0; i < degree[v]; i++) {
+                        int u = to[v][i];
+                        level[u] = Math.max(level[u], level[v] + 1);
+                        int p = degree[v] > NEIGHBOUR_UPDATE_DEGREE
+                                ? 2 * edgeDifference[u] + contractedNeighbours[u] + level[u] : priority(u);
+                        if (p != current[u]) {
+                            current[u] = p;
+                            queue.add(entry(p, u));
+                        }
+                    }
+                    to[v] = len[v] = mid[v] = null;
+                }
+
+                for (int v = 0; v < n; v++) upCount[v + 1] += upCount[v];
+                int[] upTargets = new int[upCount[n]];
+                int[] upWeights = new int[upCount[n]];
+                int[] upMiddle  = new int[upCount[n]];
+                for (int v = 0; v < n; v++) {
+                    System.arraycopy(upTo[v],  0, upTargets, upCount[v], upTo[v].length);
+                    System.arraycopy(upLen[v], 0, upWeights, upCount[v], upLen[v].length);
+                    System.arraycopy(upMid[v], 0, upMiddle,  upCount[v], upMid[v].length);
+                }
+                return new ContractionHierarchy(rank, upCount, upTargets, upWeights, upMiddle, checksum(g));
+            }
+
+            // priorities can be negative; the offset keeps entries ordered
+            private static long entry(int priority, int v) {
+                return (long) (priority + (1 << 30)) << 32 | v;
+            }
+
+            private int priority(int v) {
+                contract(v, SIMULATION_HOP_LIMIT);
+                edgeDifference[v] = scCount - degree[v];
+                return 2 * edgeDifference[v] + contractedNeighbours[v] + level[v];
+            }
+
+            // Collects in scFrom/scTo/scLen the shortcuts that contracting v
+            // needs: for each neighbour u, a Dijkstra from u that avoids v
+            // looks for a route to each later neighbour w no longer than
+            // the one through v. A hop limit makes the searches cheaper and
+            // may report shortcuts that are not needed.
+            private void contract(int v, int hopLimit) {
+                scCount = 0;
+                for (int i = 0; i + 1 < degree[v]; i++) {
+                    int u = to[v][i], du = len[v][i];
+                    int maxOut = 0;
+                    targetStamp++;
+                    for (int j = i + 1; j < degree[v]; j++) {
+                        maxOut = Math.max(maxOut, len[v][j]);
+                        target[to[v][j]] = targetStamp;
+                    }
+                    witnessSearch(u, v, du + maxOut, degree[v] - i - 1, hopLimit);
+                    for (int j = i + 1; j < degree[v]; j++) {
+                        int w = to[v][j], via = du + len[v][j];
+                        if (witness.seen(w) && witness.dist[w] <= via) continue;
+                        if (scCount == scFrom.length) {
+                            scFrom = Arrays.copyOf(scFrom, 2 * scCount);
+                            scTo   = Arrays.copyOf(scTo,   2 * scCount);
+                            scLen  = Arrays.copyOf(scLen,  2 * scCount);
+                        }
+                        scFrom[scCount] = u;
+                        scTo[scCount]   = w;
+                        scLen[scCount++] = via;
+                    }
+                }
+            }
+
+            // Dijkstra from src in the remaining graph without via, up to
+            // distance limit or WITNESS_SETTLE_LIMIT settled vertices, or
+            // until all targets (marked with targetStamp) are settled; vertices
+            // hopLimit roads from src are not expanded
+            private void witnessSearch(int src, int via, int limit, int targets, int hopLimit) {
+                Workspace ws = witness;
+                ws.nextQuery();
+                ws.reach(src, 0, -1);
+                ws.push(src, 0);
+                hops[src] = 0;
+                int settled = 0;
+                while (ws.size > 0 && ws.minKey() <= limit && settled++ < WITNESS_SETTLE_LIMIT) {
+                    int u = ws.pop();
+                    if (target[u] == targetStamp && --targets == 0) break;
+                    if (hops[u] >= hopLimit) continue;
+                    int du = ws.dist[u];
+                    for (int i = 0; i < degree[u]; i++) {
+                        int t = to[u][i];
+                        int nd = du + len[u][i];
+                        // longer than the route through via: no witness
+                        if (t == via || nd > limit) continue;
+                        if (!ws.seen(t)) {
+                            ws.reach(t, nd, u);
+                            ws.push(t, nd);
+                            hops[t] = hops[u] + 1;
+                        } else if (ws.pos[t] >= 0 && nd < ws.dist[t]) {
+                            ws.reach(t, nd, u);
+                            ws.decreaseKey(t, nd);
+                            hops[t] = hops[u] + 1;
+                        }
+                    }
+                }
+            }
+
+            // adds or shortens u -> t (one direction)
+            private void link(int u, int t, int length, int middle) {
+                for (int i = 0; i < degree[u]; i++) {
+                    if (to[u][i] == t) {
+                        if (length < len[u][i]) {
+                            len[u][i] = length;
+                            mid[u][i] = middle;
+                        }
+                        return;
+                    }
+                }
+                if (degree[u] == to[u].length) {
+                    to[u]  = Arrays.copyOf(to[u],  2 * degree[u]);
+                    len[u] = Arrays.copyOf(len[u], 2 * degree[u]);
+                    mid[u] = Arrays.copyOf(mid[u], 2 * degree[u]);
+                }
+                to[u][degree[u]]    = t;
+                len[u][degree[u]]   = length;
+                mid[u][degree[u]++] = middle;
+            }
+
+            private void unlink(int u, int t) {
+                for (int i = 0; i < degree[u]; i++) {
+                    if (to[u][i] == t) {
+                        int last = --degree[u];
+                        to[u][i]  = to[u][last];
+                        len[u][i] = len[u][last];
+                        mid[u][i] = mid[u][last];
+                        return;
+                    }
+                }
+            }
+        }
+
+        // identifies the graph a stored hierarchy belongs to
+        static long checksum(CompiledGraph g) {
+            long h = g.size();
+            for (int x : g.offsets) h = h * 31 + x;
+            for (int x : g.targets) h = h * 31 + x;
+            for (int x : g.weights) h = h * 31 + x;
+            return h;
+        }
+
+        // ---------- query ----------
+        // not thread-safe, like CompiledGraph.shortestPath(src, dst)
+        Route shortestPath(int src, int dst) {
+            if (forward == null) {
+                forward  = new Workspace(rank.length);
+                backward = new Workspace(rank.length);
+            }
+            return shortestPath(src, dst, forward, backward);
+        }
+
+        // Upward Dijkstra from src and from dst, alternating by smaller
+        // key. A side stops once its next key reaches mu, the best
+        // src-meet-dst length so far, since everything it could still
+        // reach is at least that far. Stall-on-demand: a settled vertex
+        // that a higher one already reached reaches more cheaply (over the
+        // down edge) is not on any shortest upward route, so it is not
+        // expanded.
+        Route shortestPath(int src, int dst, Workspace fwd, Workspace bwd) {
+            if (fwd == bwd || fwd.dist.length != rank.length || bwd.dist.length != rank.length) {
+                throw new IllegalArgumentException("Need two distinct workspaces for " + rank.length + " vertices");
+            }
+            fwd.nextQuery();
+            bwd.nextQuery();
+            fwd.reach(src, 0, -1);
+            fwd.push(src, 0);
+            bwd.reach(dst, 0, -1);
+            bwd.push(dst, 0);
+            long mu = src == dst ? 0 : Long.MAX_VALUE;
+            int meet = src == dst ? src : -1;
+            int settled = 0;
+            long edges = 0;
+            while (true) {
+                boolean fwdDone = fwd.size == 0 || fwd.minKey() >= mu;
+                boolean bwdDone = bwd.size == 0 || bwd.minKey() >= mu;
+                if (fwdDone && bwdDone) break;
+                boolean forward = !fwdDone && (bwdDone || fwd.minKey() <= bwd.minKey());
+                Workspace ws = forward ? fwd : bwd, other = forward ? bwd : fwd;
+                int u = ws.pop();
+                settled++;
+                int du = ws.dist[u];
+                if (stalled(u, du, ws)) continue;
+                for (int e = upOffsets[u]; e < upOffsets[u + 1]; e++) {
+                    edges++;
+                    int t  = upTargets[e];
+                    int nd = du + upWeights[e];
+                    if (!ws.seen(t)) {
+                        ws.reach(t, nd, u);
+                        ws.push(t, nd);
+                    } else if (ws.pos[t] >= 0 && nd < ws.dist[t]) {
+                        ws.reach(t, nd, u);
+                        ws.decreaseKey(t, nd);
+                    } else {
+                        continue;
+                    }
+                    if (other.seen(t) && (long) nd + other.dist[t] < mu) {
+                        mu   = (long) nd + other.dist[t];
+                        meet = t;
+                    }
+                }
+            }
+            if (meet == -1) return new Route(Integer.MAX_VALUE, new int[0], settled, edges);
+
+            // src .. meet .. dst over hierarchy edges, then unpack the shortcuts
+            int up = 0;
+            for (int at = meet; at != -1; at = fwd.prev[at]) up++;
+            int hops = up;
+            for (int at = bwd.prev[meet]; at != -1; at = bwd.prev[at]) hops++;
+            int[] packed = new int[hops];
+            int k = up;
+            for (int at = meet; at != -1; at = fwd.prev[at]) packed[--k] = at;
+            k = up;
+            for (int at = bwd.prev[meet]; at != -1; at = bwd.prev[at]) packed[k++] = at;
+            return new Route((int) mu, unpack(packed), settled, edges);
+        }
+
+        private boolean stalled(int u, int du, Workspace ws) {
+            for (int e = upOffsets[u]; e < upOffsets[u + 1]; e++) {
+                int x = upTargets[e];
+                if (ws.seen(x) && (long) ws.dist[x] + upWeights[e] < du) return true;
+            }
+            return false;
+        }
+
+        // expands every shortcut of a packed route into its roads
+        int[] unpack(int[] packed) {
+            int[] path = new int[Math.max(16, packed.length)];
+            int k = 0;
+            path[k++] = packed[0];
+            int[] stack = new int[16];
+            for (int i = 1; i < packed.length; i++) {
+                int sp = 0;
+                stack[sp++] = packed[i - 1];
+                stack[sp++] = packed[i];
+                while (sp > 0) {
+                    int b = stack[--sp], a = stack[--sp];
+                    int m = middleOf(a, b);
+                    if (m == -1) {
+                        if (k == path.length) path = Arrays.copyOf(path, 2 * k);
+                        path[k++] = b;
+                        continue;
+                    }
+                    if (sp + 4 > stack.length) stack = Arrays.copyOf(stack, 2 * stack.length);
+                    // a-m is expanded before m-b
+                    stack[sp++] = m;
+                    stack[sp++] = b;
+                    stack[sp++] = a;
+                    stack[sp++] = m;
+                }
+            }
+            return Arrays.copyOf(path, k);
+        }
+
+        // middle of the hierarchy edge a-b, stored with its lower-ranked end
+        private int middleOf(int a, int b) {
+            int lo = rank[a] < rank[b] ? a : b, hi = lo == a ? b : a;
+            for (int e = upOffsets[lo]; e < upOffsets[lo + 1]; e++) {
+                if (upTargets[e] == hi) return upMiddle[e];
+            }
+            throw new IllegalStateException("No hierarchy edge " + a + " - " + b);
+        }
+
+        // ---------- storage ----------
+        void save(Path path) throws IOException {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) Files.createDirectories(parent);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+                out.writeInt(FILE_MAGIC);
+                out.writeLong(graphChecksum);
+                writeInts(out, rank);
+                writeInts(out, upOffsets);
+                writeInts(out, upTargets);
+                writeInts(out, upWeights);
+                writeInts(out, upMiddle);
+            }
+        }
+
+        // fails if the file was built for a different graph
+        static ContractionHierarchy load(Path path, CompiledGraph g) throws IOException {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+                if (in.readInt() != FILE_MAGIC) throw new IOException(path + " is not a route hierarchy");
+                long sum = in.readLong();
+                if (sum != checksum(g)) throw new IOException(path + " was built for a different road network");
+                // every length is checked before its array is allocated
+                int n = g.size();
+                int[] rank      = readInts(in, n);
+                int[] upOffsets = readInts(in, n + 1);
+                if (upOffsets[0] != 0) throw new IOException(path + " is corrupt");
+                for (int v = 0; v < n; v++) {
+                    if (upOffsets[v + 1] < upOffsets[v]) throw new IOException(path + " is corrupt");
+                }
+                int edges = upOffsets[n];
+                int[] upTargets = readInts(in, edges);
+                int[] upWeights = readInts(in, edges);
+                int[] upMiddle  = readInts(in, edges);
+                for (int e = 0; e < edges; e++) {
+                    if (upTargets[e] < 0 || upTargets[e] >= n || upMiddle[e] < -1 || upMiddle[e] >= n) {
+                        throw new IOException(path + " is corrupt");
+                    }
+                }
+                return new ContractionHierarchy(rank, upOffsets, upTargets, upWeights, upMiddle, sum);
+            } catch (EOFException e) {
+                throw new IOException(path + " is truncated", e);
+            }
+        }
+
+        private static void writeInts(DataOutputStream out, int[] a) throws IOException {
+            out.writeInt(a.length);
+            for (int x : a) out.writeInt(x);
+        }
+
+        private static int[] readInts(DataInputStream in, int expected) throws IOException {
+            int length = in.readInt();
+            if (length != expected) {
+                throw new IOException("Corrupt route hierarchy: " + length + " values where " + expected + " belong");
+            }
+            int[] a = new int[length];
+            for (int i = 0; i < a.length; i++) a[i] = in.readInt();
+            return a;
         }
     }
 
@@ -265,6 +1496,10 @@ public class SmartCityRoutePlanner {
     // =========================================================
     static void sep() { System.out.println("--------------------------------------------------"); }
 
+    static String positionOf(BSTNode n) {
+        return n.hasPosition() ? String.format("(%.1f, %.1f)", n.x, n.y) : "-";
+    }
+
     static void printMenu() {
         sep();
         System.out.println("       SMART CITY ROUTE PLANNER - MAIN MENU");
@@ -282,6 +1517,11 @@ public class SmartCityRoutePlanner {
         System.out.println("  8. BFS Traversal (Queue-based)");
         System.out.println("  9. DFS Traversal (Stack-based)");
         System.out.println(" 10. Find Shortest Path (Dijkstra)");
+        System.out.println(" 11. Find Shortest Path (Bidirectional Dijkstra)");
+        System.out.println(" 12. Find Shortest Path (A*, straight-line bound)");
+        System.out.println(" 13. Find Shortest Path (A*, landmark bound)");
+        System.out.println(" 14. Find Shortest Path (Contraction Hierarchy)");
+        System.out.println(" 15. Compare Route Algorithms (nodes settled)");
         System.out.println("  --- System ---");
         System.out.println("  0. Exit");
         sep();
@@ -307,6 +1547,11 @@ public class SmartCityRoutePlanner {
             {"University",     "Education"},
             {"Airport",        "Transport"}
         };
+        double[][] samplePositions = {
+            // x, y in km from City Hall
+            {0, 0}, {2, 1}, {-3, -3}, {3, 4},
+            {-6, -8}, {6, 1}, {6, 3.5}, {2, -6}
+        };
         int[][] sampleRoads = {
             // indices into sampleLocations
             {0,1,3},{0,2,5},{1,3,4},{1,5,6},
@@ -314,9 +1559,11 @@ public class SmartCityRoutePlanner {
         };
 
         System.out.println("\n  Loading sample city data...");
-        for (String[] loc : sampleLocations) {
-            bst.insert(loc[0], loc[1]);
-            graph.addVertex(loc[0]);
+        for (int i = 0; i < sampleLocations.length; i++) {
+            String[] loc = sampleLocations[i];
+            double[] at  = samplePositions[i];
+            bst.insert(loc[0], loc[1], at[0], at[1]);
+            graph.addVertex(loc[0], at[0], at[1]);
         }
         for (int[] road : sampleRoads) {
             graph.addEdge(
@@ -327,6 +1574,31 @@ public class SmartCityRoutePlanner {
         System.out.println("  Sample data loaded. " + sampleLocations.length
             + " locations, " + sampleRoads.length + " roads.\n");
 
+        // ---- Contraction hierarchy: built offline, loaded at startup ----
+        //   java SmartCityRoutePlanner --build-hierarchy city.ch
+        //   java SmartCityRoutePlanner --hierarchy city.ch
+        if (args.length == 2 && args[0].equals("--build-hierarchy")) {
+            try {
+                long start = System.nanoTime();
+                graph.saveHierarchy(Paths.get(args[1]));
+                System.out.printf("  Route hierarchy written to %s (%d ms).%n", args[1],
+                                  (System.nanoTime() - start) / 1_000_000);
+            } catch (IOException e) {
+                System.out.println("  [!] Could not write route hierarchy: " + e.getMessage());
+            }
+            return;
+        } else if (args.length == 2 && args[0].equals("--hierarchy")) {
+            try {
+                graph.loadHierarchy(Paths.get(args[1]));
+                System.out.println("  Route hierarchy loaded from " + args[1] + ".\n");
+            } catch (IOException e) {
+                System.out.println("  [!] Route hierarchy not loaded (" + e.getMessage() + "); it will be built on first use.\n");
+            }
+        } else if (args.length > 0) {
+            System.out.println("  Usage: java SmartCityRoutePlanner [--build-hierarchy <file> | --hierarchy <file>]");
+            return;
+        }
+
         // ---- Menu loop ----
         while (true) {
             printMenu();
@@ -347,11 +1619,23 @@ public class SmartCityRoutePlanner {
                     if (name.isEmpty()) { System.out.println("  [!] Name cannot be empty."); break; }
                     System.out.print("  Location type : ");
                     String type = sc.nextLine().trim();
+                    System.out.print("  Position x y (km, blank if unknown): ");
+                    String pos = sc.nextLine().trim();
+                    double x = Double.NaN, y = Double.NaN;
+                    if (!pos.isEmpty()) {
+                        if (!pos.matches("-?\\d+(\\.\\d+)?\\s+-?\\d+(\\.\\d+)?")) {
+                            System.out.println("  [!] Position must be two numbers, e.g. 2.5 -4");
+                            break;
+                        }
+                        String[] xy = pos.split("\\s+");
+                        x = Double.parseDouble(xy[0]);
+                        y = Double.parseDouble(xy[1]);
+                    }
                     if (bst.contains(name)) {
                         System.out.println("  [!] Location '" + name + "' already exists.");
                     } else {
-                        bst.insert(name, type);
-                        graph.addVertex(name);
+                        bst.insert(name, type, x, y);
+                        graph.addVertex(name, x, y);
                         System.out.println("  [✓] Location '" + name + "' added.");
                     }
                     break;
@@ -376,10 +1660,10 @@ public class SmartCityRoutePlanner {
                     List<BSTNode> nodes = bst.inOrder();
                     if (nodes.isEmpty()) { System.out.println("  No locations stored."); break; }
                     System.out.println("\n  Locations (alphabetical order):");
-                    System.out.printf("  %-25s %-20s%n", "Name", "Type");
-                    System.out.println("  " + "-".repeat(45));
+                    System.out.printf("  %-25s %-20s %s%n", "Name", "Type", "Position (km)");
+                    System.out.println("  " + "-".repeat(60));
                     for (BSTNode n : nodes)
-                        System.out.printf("  %-25s %-20s%n", n.name, n.type);
+                        System.out.printf("  %-25s %-20s %s%n", n.name, n.type, positionOf(n));
                     break;
                 }
 
@@ -391,7 +1675,8 @@ public class SmartCityRoutePlanner {
                     if (found == null) {
                         System.out.println("  [!] Location not found.");
                     } else {
-                        System.out.println("  [✓] Found: " + found.name + " | Type: " + found.type);
+                        System.out.println("  [✓] Found: " + found.name + " | Type: " + found.type
+                            + " | Position: " + positionOf(found));
                         List<Edge> edges = graph.adj.get(found.name);
                         System.out.print("  Connected to: ");
                         if (edges == null || edges.isEmpty()) {
@@ -476,6 +1761,56 @@ public class SmartCityRoutePlanner {
                     break;
                 }
 
+                // --- 11. Bidirectional Shortest Path ---
+                case 11: {
+                    System.out.print("  Source      : ");
+                    String src = sc.nextLine().trim();
+                    System.out.print("  Destination : ");
+                    String dst = sc.nextLine().trim();
+                    graph.shortestPath(src, dst, RouteAlgorithm.BIDIRECTIONAL);
+                    break;
+                }
+
+                // --- 12. A* (straight-line bound) ---
+                case 12: {
+                    System.out.print("  Source      : ");
+                    String src = sc.nextLine().trim();
+                    System.out.print("  Destination : ");
+                    String dst = sc.nextLine().trim();
+                    graph.shortestPath(src, dst, RouteAlgorithm.ASTAR);
+                    break;
+                }
+
+                // --- 13. A* (landmark bound) ---
+                case 13: {
+                    System.out.print("  Source      : ");
+                    String src = sc.nextLine().trim();
+                    System.out.print("  Destination : ");
+                    String dst = sc.nextLine().trim();
+                    graph.shortestPath(src, dst, RouteAlgorithm.ALT);
+                    break;
+                }
+
+                // --- 14. Contraction Hierarchy ---
+                case 14: {
+                    System.out.print("  Source      : ");
+                    String src = sc.nextLine().trim();
+                    System.out.print("  Destination : ");
+                    String dst = sc.nextLine().trim();
+                    graph.shortestPath(src, dst, RouteAlgorithm.HIERARCHY);
+                    break;
+                }
+
+                // --- 15. Compare Route Algorithms ---
+                case 15: {
+                    System.out.print("  Source      : ");
+                    String src = sc.nextLine().trim();
+                    System.out.print("  Destination : ");
+                    String dst = sc.nextLine().trim();
+                    graph.compareRoutes(src, dst);
+                    break;
+                }
+
                 // --- 0. Exit ---
                 case 0: {
                     System.out.println("\n  Goodbye! Stay connected, smart city citizen.\n");
@@ -484,7 +1819,7 @@ public class SmartCityRoutePlanner {
                 }
 
                 default:
-                    System.out.println("  [!] Invalid option. Choose 0-10.");
+                    System.out.println("  [!] Invalid option. Choose 0-15.");
             }
         }
     }
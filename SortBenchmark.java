@@ -0,0 +1,395 @@
+import datasorter.SortingAlgorithms;
+import datasorter.SortingNetworks;
+import datasorter.WorkloadGenerator;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Benchmark harness for the sorting and search algorithms.
+ *
+ * Works like a small JMH: every (benchmark, size, distribution) combination
+ * runs in freshly forked JVMs, each fork does warm-up iterations that are
+ * discarded followed by measured iterations, results are fed into a
+ * blackhole so the JIT cannot drop the work, and the bytes allocated per
+ * operation are read from the thread allocation counter (what JMH's gc
+ * profiler reports as gc.alloc.rate.norm). Results are printed as a table
+ * and can be written as JMH-style JSON.
+ *
+ * Usage: java SortBenchmark [--bench a,b] [--sizes 1000,10000] [--dists random,sorted]
+ *                           [--warmup 5] [--iterations 10] [--forks 2] [--time 200]
+ *                           [--json results.json]
+ * --forks 0 runs everything in the current JVM.
+ */
+public class SortBenchmark {
+
+    // ---------- benchmarked operations ----------
+    interface Op {
+        void run(int[] arr, int key);
+    }
+
+    static final int LOOKUPS = 1024;
+    // prepared by measureInProcess for the lookup benchmarks
+    static int[] lookupKeys;
+    static EytzingerIndex eytzinger;
+
+    static final Map<String, Op> BENCHMARKS = new LinkedHashMap<>();
+    static {
+        BENCHMARKS.put("bubbleSort",    (a, k) -> SortingAlgorithms.bubbleSort(a));
+        BENCHMARKS.put("mergeSort",     (a, k) -> SortingAlgorithms.mergeSort(a, 0, a.length - 1));
+        BENCHMARKS.put("introSort",     (a, k) -> SortingAlgorithms.introSort(a));
+        BENCHMARKS.put("linearSearch",  (a, k) -> consume(LinearSearch.linearSearch(a, k)));
+        BENCHMARKS.put("linearSearchBlocked", (a, k) -> consume(LinearSearch.linearSearchBlocked(a, k)));
+        BENCHMARKS.put("count",         (a, k) -> consume(LinearSearch.count(a, k)));
+        BENCHMARKS.put("indexOfAll",    (a, k) -> consume(LinearSearch.indexOfAll(a, k).length));
+        // the array sorted in independent blocks of 16: scalar vs network kernel
+        BENCHMARKS.put("insertionSort16", (a, k) -> {
+            for (int i = 0; i + 16 <= a.length; i += 16) SortingAlgorithms.insertionSort(a, i, i + 15);
+        });
+        BENCHMARKS.put("networkSort16", (a, k) -> {
+            for (int i = 0; i + 16 <= a.length; i += 16) SortingNetworks.sort(a, i, i + 15);
+        });
+        // one partition of the whole array around the median of its first,
+        // middle and last value, as introSort would pick it: scalar Lomuto
+        // vs the branch-free block kernel (which takes the pivot first)
+        BENCHMARKS.put("lomutoPartition", (a, k) -> {
+            if (a.length == 0) return;
+            pivotTo(a, a.length - 1);
+            consume(SortingAlgorithms.partition(a, 0, a.length - 1));
+        });
+        BENCHMARKS.put("blockPartition", (a, k) -> {
+            if (a.length == 0) return;
+            pivotTo(a, 0);
+            consume(SortingNetworks.partition(a, 0, a.length - 1));
+        });
+        // lookups on the sorted input: one op = LOOKUPS searches for random keys,
+        // folded into a local so the op pays for one volatile write, not LOOKUPS
+        BENCHMARKS.put("binarySearch", (a, k) -> {
+            int acc = 0;
+            for (int key : lookupKeys) acc ^= SortedSearch.binarySearch(a, key);
+            consume(acc);
+        });
+        BENCHMARKS.put("branchlessSearch", (a, k) -> {
+            int acc = 0;
+            for (int key : lookupKeys) acc ^= SortedSearch.branchlessSearch(a, key);
+            consume(acc);
+        });
+        BENCHMARKS.put("interpolationSearch", (a, k) -> {
+            int acc = 0;
+            for (int key : lookupKeys) acc ^= SortedSearch.interpolationSearch(a, key);
+            consume(acc);
+        });
+        BENCHMARKS.put("eytzingerSearch", (a, k) -> {
+            int acc = 0;
+            for (int key : lookupKeys) acc ^= eytzinger.search(key);
+            consume(acc);
+        });
+        BENCHMARKS.put("eytzingerSearchAll", (a, k) -> consume(eytzinger.searchAll(lookupKeys)[0]));
+    }
+
+    // swaps the median of a[0], a[mid] and a[last] into a[to]
+    static void pivotTo(int[] a, int to) {
+        int mid = a.length / 2, last = a.length - 1;
+        int m = a[0] < a[mid] ? (a[mid] < a[last] ? mid : (a[0] < a[last] ? last : 0))
+                              : (a[0] < a[last] ? 0 : (a[mid] < a[last] ? last : mid));
+        int t = a[to];
+        a[to] = a[m];
+        a[m] = t;
+    }
+
+    static boolean isLookup(String bench) {
+        return Arrays.asList("binarySearch", "branchlessSearch", "interpolationSearch",
+                             "eytzingerSearch", "eytzingerSearchAll").contains(bench);
+    }
+
+    // benchmarks that only read the array need no fresh copy per operation
+    static boolean isReadOnly(String bench) {
+        return bench.equals("linearSearch") || bench.equals("linearSearchBlocked")
+            || bench.equals("count") || bench.equals("indexOfAll") || isLookup(bench);
+    }
+
+    // quadratic algorithms are skipped above this size
+    static final int QUADRATIC_LIMIT = 20_000;
+    // copies prepared per measured batch are capped at this many ints
+    static final int BATCH_INTS = 1 << 22;
+    static final long SEED = 42;
+
+    // ---------- blackhole ----------
+    // one volatile write per call; loops should fold their results into a
+    // local and consume that once (as JMH's Blackhole is used)
+    private static volatile int sink;
+
+    static void consume(int value) {
+        sink ^= value;
+    }
+
+    // ---------- configuration ----------
+    static class Config {
+        List<String> benches = new ArrayList<>(BENCHMARKS.keySet());
+        int[] sizes = {1_000, 10_000, 100_000};
+        List<String> dists = Arrays.asList("uniform", "sorted", "reversed", "nearlySorted",
+                                           "fewUnique", "sawtooth", "organPipe", "zipf");
+        int warmup = 5;
+        int iterations = 10;
+        int forks = 2;
+        int iterationMillis = 200;
+        String json = null;
+    }
+
+    static Config parse(String[] args) {
+        Config c = new Config();
+        for (int i = 0; i < args.length; i++) {
+            String v = i + 1 < args.length ? args[i + 1] : "";
+            switch (args[i]) {
+                case "--bench":      c.benches = Arrays.asList(v.split(",")); i++; break;
+                case "--sizes":      c.sizes = Arrays.stream(v.split(",")).mapToInt(Integer::parseInt).toArray(); i++; break;
+                case "--dists":      c.dists = Arrays.asList(v.split(",")); i++; break;
+                case "--warmup":     c.warmup = Integer.parseInt(v); i++; break;
+                case "--iterations": c.iterations = Integer.parseInt(v); i++; break;
+                case "--forks":      c.forks = Integer.parseInt(v); i++; break;
+                case "--time":       c.iterationMillis = Integer.parseInt(v); i++; break;
+                case "--json":       c.json = v; i++; break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        for (String b : c.benches) {
+            if (!BENCHMARKS.containsKey(b)) throw new IllegalArgumentException("Unknown benchmark: " + b);
+        }
+        return c;
+    }
+
+    // ---------- result of one combination ----------
+    static class Result {
+        final String bench, dist;
+        final int size;
+        final List<double[]> forkScores = new ArrayList<>();   // us/op per iteration
+        double allocBytesPerOp;
+        String failure;
+
+        Result(String bench, int size, String dist) {
+            this.bench = bench;
+            this.size = size;
+            this.dist = dist;
+        }
+
+        double[] allScores() {
+            return forkScores.stream().flatMapToDouble(Arrays::stream).toArray();
+        }
+
+        double mean() {
+            return Arrays.stream(allScores()).average().orElse(Double.NaN);
+        }
+
+        // half-width of a ~99.9% interval, as JMH reports it
+        double error() {
+            double[] s = allScores();
+            if (s.length < 2) return Double.NaN;
+            double m = mean(), var = 0;
+            for (double x : s) var += (x - m) * (x - m);
+            return 3.29 * Math.sqrt(var / (s.length - 1)) / Math.sqrt(s.length);
+        }
+    }
+
+    // ---------- main ----------
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("--child")) {
+            runChild(args);
+            return;
+        }
+        Config c = parse(args);
+        List<Result> results = new ArrayList<>();
+
+        for (String bench : c.benches) {
+            for (int size : c.sizes) {
+                for (String dist : c.dists) {
+                    Result r = new Result(bench, size, dist);
+                    if (bench.equals("bubbleSort") && size > QUADRATIC_LIMIT) {
+                        r.failure = "skipped (quadratic)";
+                    } else if (c.forks == 0) {
+                        measureInProcess(r, c);
+                    } else {
+                        for (int f = 0; f < c.forks && r.failure == null; f++) fork(r, c);
+                    }
+                    results.add(r);
+                    printRow(r);
+                }
+            }
+        }
+        if (c.json != null) {
+            writeJson(results, c, c.json);
+            System.out.println("JSON results written to " + c.json);
+        }
+    }
+
+    static void printRow(Result r) {
+        if (r.failure != null) {
+            System.out.printf("%-20s %10d %-10s %s%n", r.bench, r.size, r.dist, r.failure);
+        } else {
+            System.out.printf(Locale.ROOT, "%-20s %10d %-10s %14.3f ± %10.3f us/op %14.1f B/op%n",
+                              r.bench, r.size, r.dist, r.mean(), r.error(), r.allocBytesPerOp);
+        }
+    }
+
+    // ---------- forking ----------
+    static void fork(Result r, Config c) throws IOException, InterruptedException {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        List<String> cmd = Arrays.asList(java, "-cp", System.getProperty("java.class.path"),
+                "SortBenchmark", "--child", r.bench, String.valueOf(r.size), r.dist,
+                String.valueOf(c.warmup), String.valueOf(c.iterations), String.valueOf(c.iterationMillis));
+        Process p = new ProcessBuilder(cmd).redirectErrorStream(true).start();
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(p.getInputStream()))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] parts = line.split("\t");
+                if (parts[0].equals("SCORES")) {
+                    r.forkScores.add(Arrays.stream(parts[1].split(",")).mapToDouble(Double::parseDouble).toArray());
+                } else if (parts[0].equals("ALLOC")) {
+                    r.allocBytesPerOp = Double.parseDouble(parts[1]);
+                } else if (parts[0].equals("FAILED")) {
+                    r.failure = "FAILED (" + parts[1] + ")";
+                }
+            }
+        }
+        if (p.waitFor() != 0 && r.failure == null) r.failure = "FAILED (exit " + p.exitValue() + ")";
+    }
+
+    static void runChild(String[] args) {
+        Config c = new Config();
+        Result r = new Result(args[1], Integer.parseInt(args[2]), args[3]);
+        c.warmup = Integer.parseInt(args[4]);
+        c.iterations = Integer.parseInt(args[5]);
+        c.iterationMillis = Integer.parseInt(args[6]);
+        measureInProcess(r, c);
+        if (r.failure != null) {
+            System.out.println("FAILED\t" + r.failure);
+            System.exit(1);
+        }
+        StringBuilder sb = new StringBuilder();
+        for (double s : r.forkScores.get(0)) sb.append(sb.length() == 0 ? "" : ",").append(s);
+        System.out.println("SCORES\t" + sb);
+        System.out.println("ALLOC\t" + r.allocBytesPerOp);
+    }
+
+    // ---------- measurement ----------
+    static void measureInProcess(Result r, Config c) {
+        Op op = BENCHMARKS.get(r.bench);
+        int[] data = generate(r.dist, r.size, SEED);
+        int key = data.length == 0 ? 0 : data[data.length - 1];   // worst case for linear search
+        if (isLookup(r.bench)) {
+            Arrays.sort(data);
+            Random rand = new Random(SEED);
+            lookupKeys = new int[LOOKUPS];
+            for (int i = 0; i < LOOKUPS; i++) {
+                lookupKeys[i] = data.length == 0 ? 0 : data[rand.nextInt(data.length)];
+            }
+            eytzinger = new EytzingerIndex(data);
+        }
+        boolean readOnly = isReadOnly(r.bench);
+        int maxBatch = readOnly ? 1024 : Math.max(1, BATCH_INTS / Math.max(1, r.size));
+        int[][] copies = new int[readOnly ? 0 : maxBatch][];
+        int batch = 1;
+
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long tid = Thread.currentThread().getId();
+
+        double[] scores = new double[c.iterations];
+        long allocBytes = 0, allocOps = 0;
+        try {
+            for (int it = -c.warmup; it < c.iterations; it++) {
+                long ops = 0, elapsed = 0, alloc = 0;
+                long deadline = System.nanoTime() + c.iterationMillis * 1_000_000L;
+                while (System.nanoTime() < deadline) {
+                    if (!readOnly) {
+                        for (int b = 0; b < batch; b++) copies[b] = data.clone();
+                    }
+                    long a0 = threads.getThreadAllocatedBytes(tid);
+                    long t0 = System.nanoTime();
+                    for (int b = 0; b < batch; b++) {
+                        int[] arr = readOnly ? data : copies[b];
+                        op.run(arr, key);
+                        if (!readOnly && arr.length > 0) consume(arr[0] ^ arr[arr.length - 1]);
+                    }
+                    long t1 = System.nanoTime();
+                    elapsed += t1 - t0;
+                    alloc += threads.getThreadAllocatedBytes(tid) - a0;
+                    ops += batch;
+                    // size the next batch to about half of the time left in this iteration
+                    double perOp = (double) (t1 - t0) / batch;
+                    batch = (int) Math.max(1, Math.min(maxBatch, (deadline - t1) / 2 / Math.max(1.0, perOp)));
+                }
+                if (it >= 0) {
+                    scores[it] = elapsed / 1_000.0 / ops;
+                    allocBytes += alloc;
+                    allocOps += ops;
+                }
+            }
+        } catch (StackOverflowError e) {
+            r.failure = "StackOverflowError";
+            return;
+        }
+        r.forkScores.add(scores);
+        r.allocBytesPerOp = allocOps == 0 ? 0 : (double) allocBytes / allocOps;
+    }
+
+    // ---------- input distributions ----------
+    static int[] generate(String dist, int n, long seed) {
+        return WorkloadGenerator.generate(WorkloadGenerator.Distribution.parse(dist), n, Integer.MAX_VALUE, seed);
+    }
+
+    // ---------- JSON output (JMH layout) ----------
+    static void writeJson(List<Result> results, Config c, String path) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(Paths.get(path)))) {
+            out.println("[");
+            for (int i = 0; i < results.size(); i++) {
+                Result r = results.get(i);
+                out.println("  {");
+                out.printf("    \"benchmark\" : \"%s\",%n", r.bench);
+                out.printf("    \"mode\" : \"avgt\",%n");
+                out.printf("    \"forks\" : %d,%n", c.forks);
+                out.printf("    \"warmupIterations\" : %d,%n", c.warmup);
+                out.printf("    \"measurementIterations\" : %d,%n", c.iterations);
+                out.printf("    \"params\" : { \"size\" : \"%d\", \"distribution\" : \"%s\" },%n", r.size, r.dist);
+                if (r.failure != null) {
+                    out.printf("    \"failure\" : \"%s\"%n", r.failure);
+                } else {
+                    out.println("    \"primaryMetric\" : {");
+                    out.printf(Locale.ROOT, "      \"score\" : %s,%n", num(r.mean()));
+                    out.printf(Locale.ROOT, "      \"scoreError\" : %s,%n", num(r.error()));
+                    out.println("      \"scoreUnit\" : \"us/op\",");
+                    out.print("      \"rawData\" : [");
+                    for (int f = 0; f < r.forkScores.size(); f++) {
+                        out.print((f == 0 ? "" : ", ") + "[");
+                        double[] s = r.forkScores.get(f);
+                        for (int j = 0; j < s.length; j++) out.print((j == 0 ? "" : ", ") + num(s[j]));
+                        out.print("]");
+                    }
+                    out.println("]");
+                    out.println("    },");
+                    out.println("    \"secondaryMetrics\" : {");
+                    out.printf(Locale.ROOT, "      \"gc.alloc.rate.norm\" : { \"score\" : %s, \"scoreUnit\" : \"B/op\" }%n",
+                               num(r.allocBytesPerOp));
+                    out.println("    }");
+                }
+                out.println(i + 1 < results.size() ? "  }," : "  }");
+            }
+            out.println("]");
+        }
+    }
+
+    private static String num(double v) {
+        return Double.isNaN(v) ? "\"NaN\"" : String.format(Locale.ROOT, "%.6f", v);
+    }
+}
@@ -0,0 +1,45 @@
+package datasorter;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.SettingDefinition;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one top-level sort call in SortingAlgorithms.
+ * The duration is that of the uninstrumented sort, and comparisons is -1.
+ * With the countComparisons setting on, e.g.
+ *   -XX:StartFlightRecording=ccs2300.Sort#countComparisons=true,...
+ * or Recording.enable("ccs2300.Sort").with("countComparisons", "true"),
+ * the sort runs under a CountingProbe instead: comparisons is filled in and
+ * the duration includes the counting. Without a recording the event costs
+ * nothing.
+ */
+@Name("ccs2300.Sort")
+@Label("Sort")
+@Category({"CCS2300", "Algorithms"})
+@Description("One sort call with its input size and comparison count")
+@StackTrace(false)
+public class SortEvent extends Event {
+
+    @Label("Algorithm")
+    public String algorithm;
+
+    @Label("Input Size")
+    public int inputSize;
+
+    @Label("Comparisons")
+    @Description("-1 unless countComparisons is on")
+    public long comparisons;
+
+    @Name("countComparisons")
+    @Label("Count Comparisons")
+    @Description("Run the sort under a comparison counter (slower)")
+    @SettingDefinition
+    protected boolean countComparisons(ComparisonCountSetting setting) {
+        return true;   // only switches the counting, never filters events
+    }
+}
@@ -0,0 +1,36 @@
+package datasorter;
+
+/**
+ * Instrumentation hook for the sorting algorithms.
+ * Every algorithm reports its comparisons, swaps, element moves and
+ * recursion depth through a probe. Production calls pass SortProbe.NONE,
+ * whose empty methods are inlined away by the JIT, so the instrumented and
+ * uninstrumented runs share a single implementation.
+ */
+public interface SortProbe {
+
+    SortProbe NONE = new NoOpProbe();
+
+    // one key comparison
+    default void compare() {}
+
+    // one exchange of two elements
+    default void swap() {}
+
+    // count elements written (copies to / from buffers, shifts)
+    default void move(int count) {}
+
+    // entering / leaving one level of recursion
+    default void enter() {}
+
+    default void exit() {}
+
+    // auxiliary buffer of the given size acquired / given back
+    default void allocate(long bytes) {}
+
+    default void release(long bytes) {}
+
+    final class NoOpProbe implements SortProbe {
+        private NoOpProbe() {}
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ * Lookups over sorted int arrays (e.g. the output of the sorting
+ * algorithms). All methods return the index of the first occurrence of key,
+ * or -1 when it is absent.
+ *   - binarySearch         : classic branching binary search
+ *   - branchlessSearch     : fixed-length lower bound whose only data-dependent
+ *                            step is a conditional move, so it never mispredicts
+ *   - interpolationSearch  : probes where the key should be on uniform data,
+ *                            O(log log n) expected; falls back to binary search
+ *                            when the probes stop converging
+ * For many lookups on the same large array see EytzingerIndex.
+ */
+public class SortedSearch {
+
+    // interpolation probes allowed before switching to binary search
+    static final int MAX_INTERPOLATION_PROBES = 32;
+
+    public static int binarySearch(int[] arr, int key) {
+        int lo = 0, hi = arr.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (arr[mid] < key) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo < arr.length && arr[lo] == key ? lo : -1;
+    }
+
+    public static int branchlessSearch(int[] arr, int key) {
+        int i = lowerBound(arr, key);
+        return i < arr.length && arr[i] == key ? i : -1;
+    }
+
+    // first index whose value is >= key (arr.length if none)
+    public static int lowerBound(int[] arr, int key) {
+        int n = arr.length;
+        if (n == 0) return 0;
+        int base = 0;
+        while (n > 1) {
+            int half = n >>> 1;
+            base = arr[base + half - 1] < key ? base + half : base;
+            n -= half;
+        }
+        return base + (arr[base] < key ? 1 : 0);
+    }
+
+    public static int interpolationSearch(int[] arr, int key) {
+        int lo = 0, hi = arr.length - 1;
+        for (int probes = 0; lo <= hi && probes < MAX_INTERPOLATION_PROBES; probes++) {
+            int low = arr[lo], high = arr[hi];
+            if (key < low || key > high) return -1;
+            if (low == high) {
+                return low == key ? lo : -1;
+            }
+            int pos = lo + (int) (((long) key - low) * (hi - lo) / ((long) high - low));
+            if (arr[pos] < key) {
+                lo = pos + 1;
+            } else if (arr[pos] > key) {
+                hi = pos - 1;
+            } else {
+                // step back to the first occurrence
+                return lowerBound(arr, lo, pos, key);
+            }
+        }
+        if (lo > hi) return -1;
+        int i = lowerBound(arr, lo, hi + 1, key);
+        return i <= hi && arr[i] == key ? i : -1;
+    }
+
+    // first index in [from, to) whose value is >= key
+    static int lowerBound(int[] arr, int from, int to, int key) {
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            if (arr[mid] < key) from = mid + 1;
+            else to = mid;
+        }
+        return from;
+    }
+}
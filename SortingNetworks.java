@@ -0,0 +1,130 @@
+package datasorter;
+
+/**
+ * Branch-free kernels of introSort.
+ *   - sort      : Batcher odd-even merge network for the leaves, up to 16
+ *                 elements. Each comparator is a Math.min / Math.max pair,
+ *                 which the JIT compiles to conditional moves, so there are
+ *                 no mispredicted branches on random data.
+ *   - partition : block partition (BlockQuicksort): the compares of a block
+ *                 only record offsets, and the swaps run afterwards, so
+ *                 neither loop branches on the data.
+ */
+public class SortingNetworks {
+
+    public static final int MAX_NETWORK_SIZE = 16;
+    // elements classified per block; the offsets buffer holds 2 * BLOCK ints
+    public static final int BLOCK = 64;
+
+    // comparator k orders positions NET_LO[k] < NET_HI[k]
+    private static final int[] NET_LO;
+    private static final int[] NET_HI;
+
+    static {
+        int n = MAX_NETWORK_SIZE;
+        int[] lo = new int[n * n], hi = new int[n * n];
+        int count = 0;
+        for (int p = 1; p < n; p <<= 1) {
+            for (int k = p; k >= 1; k >>= 1) {
+                for (int j = k % p; j <= n - 1 - k; j += 2 * k) {
+                    for (int i = 0; i <= Math.min(k - 1, n - j - k - 1); i++) {
+                        if ((i + j) / (2 * p) == (i + j + k) / (2 * p)) {
+                            lo[count] = i + j;
+                            hi[count] = i + j + k;
+                            count++;
+                        }
+                    }
+                }
+            }
+        }
+        NET_LO = java.util.Arrays.copyOf(lo, count);
+        NET_HI = java.util.Arrays.copyOf(hi, count);
+    }
+
+    // sorts arr[low..high], at most MAX_NETWORK_SIZE elements
+    public static void sort(int[] arr, int low, int high) {
+        sort(arr, low, high, SortProbe.NONE);
+    }
+
+    public static void sort(int[] arr, int low, int high, SortProbe probe) {
+        int n = high - low + 1;
+        if (n > MAX_NETWORK_SIZE) {
+            throw new IllegalArgumentException("Network sorts at most " + MAX_NETWORK_SIZE + " elements: " + n);
+        }
+        // comparators that touch a position >= n act against +infinity and are no-ops
+        for (int c = 0; c < NET_LO.length; c++) {
+            int h = NET_HI[c];
+            if (h >= n) continue;
+            int i = low + NET_LO[c], j = low + h;
+            int x = arr[i], y = arr[j];
+            arr[i] = Math.min(x, y);
+            arr[j] = Math.max(x, y);
+            probe.compare();
+            probe.move(2);
+        }
+    }
+
+    public static int partition(int[] arr, int low, int high) {
+        return partition(arr, low, high, new int[2 * BLOCK], SortProbe.NONE);
+    }
+
+    // Partitions arr[low..high] around the pivot in arr[low] and returns its
+    // final index: smaller values end up left of it, the rest right of it.
+    // offsets needs 2 * BLOCK ints, it may be null for ranges under that.
+    public static int partition(int[] arr, int low, int high, int[] offsets, SortProbe probe) {
+        int pivot = arr[low];
+        // [low+1..first-1] < pivot, [last+1..high] >= pivot, the rest unknown
+        int first = low + 1, last = high;
+        int startL = 0, numL = 0, startR = BLOCK, numR = 0;
+        while (last - first + 1 >= 2 * BLOCK) {
+            // offsets of the values on the wrong side, without a branch
+            if (numL == 0) {
+                startL = 0;
+                for (int i = 0; i < BLOCK; i++) {
+                    offsets[numL] = i;
+                    numL += arr[first + i] >= pivot ? 1 : 0;
+                    probe.compare();
+                }
+            }
+            if (numR == 0) {
+                startR = BLOCK;
+                for (int i = 0; i < BLOCK; i++) {
+                    offsets[BLOCK + numR] = i;
+                    numR += arr[last - i] < pivot ? 1 : 0;
+                    probe.compare();
+                }
+            }
+            int num = Math.min(numL, numR);
+            for (int k = 0; k < num; k++) {
+                int i = first + offsets[startL + k], j = last - offsets[startR + k];
+                int t = arr[i];
+                arr[i] = arr[j];
+                arr[j] = t;
+                probe.swap();
+            }
+            numL -= num;
+            numR -= num;
+            startL += num;
+            startR += num;
+            // a block with offsets left over is scanned again by the loop below
+            if (numL == 0) first += BLOCK;
+            if (numR == 0) last -= BLOCK;
+        }
+        // the remaining < 3 * BLOCK values: unconditional exchange, the
+        // boundary advances arithmetically
+        int i = first;
+        for (int j = first; j <= last; j++) {
+            int v = arr[j];
+            arr[j] = arr[i];
+            arr[i] = v;
+            i += v < pivot ? 1 : 0;
+            probe.compare();
+            probe.swap();
+        }
+        int mid = i - 1;
+        arr[low] = arr[mid];
+        arr[mid] = pivot;
+        probe.swap();
+        return mid;
+    }
+}
@@ -0,0 +1,229 @@
+package datasorter;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.function.IntConsumer;
+
+/**
+ * Per-machine thresholds of the hybrid sorts:
+ *   - insertionSortCutoff : introSort / nthElement finish ranges this small
+ *                           with insertion sort
+ *   - radixThreshold      : IntegerSorts.sort uses counting / radix sort from
+ *                           this size on, introSort below it
+ *   - parallelThreshold   : ParallelMergeSort sorts ranges this small on the
+ *                           current thread
+ * loadOrCalibrate() reads the profile file (~/.ccs2300/sort-tuning.properties,
+ * or the path in -Ddatasorter.tuning). When the file is missing, unreadable
+ * or was written for a different core count, it micro-benchmarks the
+ * candidates of each threshold (a few seconds) and writes a new one.
+ * apply() installs the values into the sorting classes.
+ */
+public final class TuningProfile {
+
+    public static final int DEFAULT_INSERTION_SORT_CUTOFF = 24;
+    public static final int DEFAULT_RADIX_THRESHOLD = 64;
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 8192;
+
+    public static final TuningProfile DEFAULTS = new TuningProfile(
+        DEFAULT_INSERTION_SORT_CUTOFF, DEFAULT_RADIX_THRESHOLD, DEFAULT_PARALLEL_THRESHOLD,
+        Runtime.getRuntime().availableProcessors());
+
+    // introSort hands ranges of up to MAX_NETWORK_SIZE to the sorting
+    // networks, so only cutoffs above that change what it does
+    static final int[] CUTOFF_CANDIDATES = {20, 24, 32, 48, 64, 96};
+    static final int[] RADIX_CANDIDATES = {16, 32, 64, 128, 256, 512, 1024, 2048};
+    static final int[] PARALLEL_CANDIDATES = {2048, 4096, 8192, 16384, 32768, 65536};
+
+    static final int CALIBRATION_SIZE = 1 << 18;
+    static final int REPETITIONS = 5;
+    static final long SEED = 19;
+
+    public final int insertionSortCutoff;
+    public final int radixThreshold;
+    public final int parallelThreshold;
+    public final int cores;         // availableProcessors() when calibrated
+
+    public TuningProfile(int insertionSortCutoff, int radixThreshold, int parallelThreshold, int cores) {
+        if (insertionSortCutoff < 1 || radixThreshold < 1 || parallelThreshold < 2) {
+            throw new IllegalArgumentException("Thresholds must be positive");
+        }
+        this.insertionSortCutoff = insertionSortCutoff;
+        this.radixThreshold = radixThreshold;
+        this.parallelThreshold = parallelThreshold;
+        this.cores = cores;
+    }
+
+    public static Path defaultPath() {
+        String path = System.getProperty("datasorter.tuning");
+        return path != null ? Paths.get(path)
+                            : Paths.get(System.getProperty("user.home"), ".ccs2300", "sort-tuning.properties");
+    }
+
+    // loads the profile at defaultPath(), calibrating and saving one first if needed
+    public static TuningProfile loadOrCalibrate() {
+        Path path = defaultPath();
+        if (Files.exists(path)) {
+            try {
+                TuningProfile p = load(path);
+                if (p.cores == Runtime.getRuntime().availableProcessors()) return p;
+                System.err.println("Tuning profile was calibrated for " + p.cores + " cores, recalibrating");
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Ignoring unreadable tuning profile " + path + ": " + e.getMessage());
+            }
+        }
+        return calibrateAndSave(path);
+    }
+
+    public static TuningProfile calibrateAndSave(Path path) {
+        TuningProfile p = calibrate();
+        try {
+            p.save(path);
+            System.err.println("Tuning profile written to " + path);
+        } catch (IOException e) {
+            System.err.println("Could not write tuning profile " + path + ": " + e.getMessage());
+        }
+        return p;
+    }
+
+    public void apply() {
+        SortingAlgorithms.insertionSortCutoff = insertionSortCutoff;
+        IntegerSorts.radixThreshold = radixThreshold;
+        ParallelMergeSort.sequentialThreshold = parallelThreshold;
+    }
+
+    // ---------- file format (java.util.Properties) ----------
+    public static TuningProfile load(Path path) throws IOException {
+        Properties props = new Properties();
+        try (Reader in = Files.newBufferedReader(path)) {
+            props.load(in);
+        }
+        return new TuningProfile(intProperty(props, "insertionSortCutoff"),
+                                 intProperty(props, "radixThreshold"),
+                                 intProperty(props, "parallelThreshold"),
+                                 intProperty(props, "cores"));
+    }
+
+    private static int intProperty(Properties props, String key) throws IOException {
+        String v = props.getProperty(key);
+        if (v == null) throw new IOException("missing " + key);
+        return Integer.parseInt(v.trim());
+    }
+
+    public void save(Path path) throws IOException {
+        Properties props = new Properties();
+        props.setProperty("insertionSortCutoff", String.valueOf(insertionSortCutoff));
+        props.setProperty("radixThreshold", String.valueOf(radixThreshold));
+        props.setProperty("parallelThreshold", String.valueOf(parallelThreshold));
+        props.setProperty("cores", String.valueOf(cores));
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        try (Writer out = Files.newBufferedWriter(path)) {
+            props.store(out, "Sort tuning profile, " + System.getProperty("java.vm.name")
+                             + " " + System.getProperty("java.version"));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("insertionSortCutoff=%d, radixThreshold=%d, parallelThreshold=%d (%d cores)",
+                             insertionSortCutoff, radixThreshold, parallelThreshold, cores);
+    }
+
+    // ========== CALIBRATION ==========
+    // Each threshold is timed with the others at their defaults; the active
+    // values are restored afterwards.
+    public static TuningProfile calibrate() {
+        int savedCutoff = SortingAlgorithms.insertionSortCutoff;
+        int savedRadix = IntegerSorts.radixThreshold;
+        int savedParallel = ParallelMergeSort.sequentialThreshold;
+        DEFAULTS.apply();
+        try {
+            System.err.println("Calibrating sort thresholds...");
+            int[] data = WorkloadGenerator.generate(WorkloadGenerator.Distribution.UNIFORM,
+                                                    CALIBRATION_SIZE, Integer.MAX_VALUE, SEED);
+            int cutoff = calibrateCutoff(data);
+            int radix = calibrateRadixThreshold(data);
+            int parallel = calibrateParallelThreshold(data);
+            TuningProfile p = new TuningProfile(cutoff, radix, parallel, Runtime.getRuntime().availableProcessors());
+            System.err.println("Calibrated: " + p);
+            return p;
+        } finally {
+            SortingAlgorithms.insertionSortCutoff = savedCutoff;
+            IntegerSorts.radixThreshold = savedRadix;
+            ParallelMergeSort.sequentialThreshold = savedParallel;
+        }
+    }
+
+    private interface Sorter {
+        void sort(int[] arr);
+    }
+
+    private static int calibrateCutoff(int[] data) {
+        return fastest(CUTOFF_CANDIDATES, c -> SortingAlgorithms.insertionSortCutoff = c,
+                       data, a -> SortingAlgorithms.introSort(a, 0, a.length - 1, SortProbe.NONE));
+    }
+
+    private static int calibrateParallelThreshold(int[] data) {
+        return fastest(PARALLEL_CANDIDATES, t -> ParallelMergeSort.sequentialThreshold = t,
+                       data, ParallelMergeSort::sort);
+    }
+
+    // The smallest candidate size from which the integer sorts beat introSort
+    // at that size and every larger candidate; data is cut into arrays of
+    // each size so every measurement sorts the same number of elements.
+    private static int calibrateRadixThreshold(int[] data) {
+        int threshold = RADIX_CANDIDATES[RADIX_CANDIDATES.length - 1] * 2;
+        for (int i = RADIX_CANDIDATES.length - 1; i >= 0; i--) {
+            int size = RADIX_CANDIDATES[i];
+            long intro = medianNanos(data, a -> sortSlices(a, size, s -> SortingAlgorithms.introSort(s, 0, s.length - 1, SortProbe.NONE)));
+            long radix = medianNanos(data, a -> sortSlices(a, size, IntegerSorts::radixSort));
+            if (radix >= intro) break;
+            threshold = size;
+        }
+        return threshold;
+    }
+
+    private static void sortSlices(int[] a, int size, Sorter sort) {
+        int[] slice = new int[size];
+        for (int from = 0; from + size <= a.length; from += size) {
+            System.arraycopy(a, from, slice, 0, size);
+            sort.sort(slice);
+            System.arraycopy(slice, 0, a, from, size);
+        }
+    }
+
+    private static int fastest(int[] candidates, IntConsumer set, int[] data, Sorter sort) {
+        int best = candidates[0];
+        long bestNanos = Long.MAX_VALUE;
+        for (int c : candidates) {
+            set.accept(c);
+            long t = medianNanos(data, sort);
+            if (t < bestNanos) {
+                bestNanos = t;
+                best = c;
+            }
+        }
+        return best;
+    }
+
+    // median of REPETITIONS timed sorts of fresh copies, after one warm-up
+    private static long medianNanos(int[] data, Sorter sort) {
+        long[] times = new long[REPETITIONS];
+        int[] copy = new int[data.length];
+        for (int rep = -1; rep < REPETITIONS; rep++) {
+            System.arraycopy(data, 0, copy, 0, data.length);
+            long start = System.nanoTime();
+            sort.sort(copy);
+            long elapsed = System.nanoTime() - start;
+            if (rep >= 0) times[rep] = elapsed;
+        }
+        Arrays.sort(times);
+        return times[REPETITIONS / 2];
+    }
+}
@@ -0,0 +1,174 @@
+package datasorter;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Seeded, reproducible input generator.
+ * The array is cut into fixed-size chunks and every chunk draws from its own
+ * SplittableRandom split off the seed in chunk order, so the output depends
+ * only on (distribution, n, bound, seed) - never on the number of threads.
+ * Large arrays are filled in parallel. Datasets can be saved and loaded in
+ * the binary int format (FastIntIO) so every algorithm is measured on
+ * byte-identical input.
+ */
+public class WorkloadGenerator {
+
+    public enum Distribution {
+        UNIFORM,        // independent values in [0, bound)
+        SORTED,         // ascending ramp over [0, bound)
+        REVERSED,       // descending ramp
+        NEARLY_SORTED,  // ascending ramp, ~1% of elements swapped with a random
+                        // partner in the same CHUNK-sized block
+        FEW_UNIQUE,     // 16 distinct values
+        SAWTOOTH,       // 16 ascending teeth
+        ORGAN_PIPE,     // ascending then descending
+        ZIPF;           // value k drawn with probability ~ 1/(k+1)
+
+        // accepts "FEW_UNIQUE", "few_unique" or "fewUnique"
+        public static Distribution parse(String name) {
+            String key = name.replaceAll("([a-z])([A-Z])", "$1_$2").toUpperCase(Locale.ROOT);
+            return valueOf(key);
+        }
+    }
+
+    static final int CHUNK = 1 << 16;
+    static final int PARALLEL_THRESHOLD = 1 << 20;
+    static final int FEW_UNIQUE_VALUES = 16;
+    static final int TEETH = 16;
+    // Zipf ranks are capped so the CDF table stays small
+    static final int MAX_ZIPF_RANKS = 1 << 20;
+
+    public static int[] generate(Distribution dist, int n, int bound, long seed) {
+        if (n < 0) throw new IllegalArgumentException("n must be >= 0: " + n);
+        if (bound <= 0) throw new IllegalArgumentException("bound must be > 0: " + bound);
+
+        int[] arr = new int[n];
+        int chunks = (n + CHUNK - 1) / CHUNK;
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] rngs = new SplittableRandom[chunks];
+        for (int c = 0; c < chunks; c++) rngs[c] = root.split();
+
+        double[] zipfCdf = dist == Distribution.ZIPF ? zipfCdf(Math.min(bound, MAX_ZIPF_RANKS)) : null;
+
+        IntStream range = IntStream.range(0, chunks);
+        if (n >= PARALLEL_THRESHOLD) range = range.parallel();
+        range.forEach(c -> {
+            int from = c * CHUNK;
+            int to = Math.min(n, from + CHUNK);
+            fillChunk(arr, from, to, dist, bound, rngs[c], zipfCdf);
+        });
+        return arr;
+    }
+
+    private static void fillChunk(int[] arr, int from, int to, Distribution dist, int bound,
+                                  SplittableRandom rng, double[] zipfCdf) {
+        int n = arr.length;
+        switch (dist) {
+            case UNIFORM:
+                for (int i = from; i < to; i++) arr[i] = rng.nextInt(bound);
+                break;
+            case SORTED:
+                for (int i = from; i < to; i++) arr[i] = ramp(i, n, bound);
+                break;
+            case REVERSED:
+                for (int i = from; i < to; i++) arr[i] = ramp(n - 1 - i, n, bound);
+                break;
+            case NEARLY_SORTED:
+                for (int i = from; i < to; i++) arr[i] = ramp(i, n, bound);
+                // 1% of the chunk, but at least one swap so small inputs are
+                // not sorted; j is never i, so every swap moves two elements
+                for (int s = (to - from < 2) ? 0 : Math.max(1, (to - from) / 100); s > 0; s--) {
+                    int len = to - from, i = rng.nextInt(len);
+                    int j = from + (i + 1 + rng.nextInt(len - 1)) % len;
+                    i += from;
+                    int t = arr[i];
+                    arr[i] = arr[j];
+                    arr[j] = t;
+                }
+                break;
+            case FEW_UNIQUE: {
+                int step = Math.max(1, bound / FEW_UNIQUE_VALUES);
+                int distinct = Math.min(bound, FEW_UNIQUE_VALUES);
+                for (int i = from; i < to; i++) arr[i] = rng.nextInt(distinct) * step;
+                break;
+            }
+            case SAWTOOTH: {
+                int period = Math.max(1, (n + TEETH - 1) / TEETH);
+                for (int i = from; i < to; i++) arr[i] = ramp(i % period, period, bound);
+                break;
+            }
+            case ORGAN_PIPE: {
+                int half = Math.max(1, (n + 1) / 2);
+                for (int i = from; i < to; i++) arr[i] = ramp(i < half ? i : n - 1 - i, half, bound);
+                break;
+            }
+            case ZIPF:
+                for (int i = from; i < to; i++) arr[i] = sampleZipf(zipfCdf, rng.nextDouble());
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown distribution: " + dist);
+        }
+    }
+
+    // i-th of n evenly spaced values in [0, bound)
+    private static int ramp(int i, int n, int bound) {
+        return (int) ((long) i * bound / n);
+    }
+
+    private static double[] zipfCdf(int ranks) {
+        double[] cdf = new double[ranks];
+        double sum = 0;
+        for (int k = 0; k < ranks; k++) {
+            sum += 1.0 / (k + 1);
+            cdf[k] = sum;
+        }
+        for (int k = 0; k < ranks; k++) cdf[k] /= sum;
+        return cdf;
+    }
+
+    // smallest rank whose cumulative probability reaches u
+    private static int sampleZipf(double[] cdf, double u) {
+        int lo = 0, hi = cdf.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (cdf[mid] < u) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    // ========== SAVE / LOAD ==========
+    public static void save(Path file, int[] arr) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+            FastIntIO.writeBinary(out, arr);
+        }
+    }
+
+    public static int[] load(Path file) throws IOException {
+        return FastIntIO.readBinary(file);
+    }
+
+    // WorkloadGenerator <distribution> <n> <bound> <seed> <output.bin>
+    public static void main(String[] args) throws IOException {
+        if (args.length < 5) {
+            System.out.println("Usage: WorkloadGenerator <distribution> <n> <bound> <seed> <output.bin>");
+            System.out.println("Distributions: " + java.util.Arrays.toString(Distribution.values()));
+            return;
+        }
+        Distribution dist = Distribution.parse(args[0]);
+        int n = Integer.parseInt(args[1]);
+        long start = System.nanoTime();
+        int[] arr = generate(dist, n, Integer.parseInt(args[2]), Long.parseLong(args[3]));
+        double genMs = (System.nanoTime() - start) / 1e6;
+        save(Paths.get(args[4]), arr);
+        System.out.printf("Generated %d %s values in %.1f ms -> %s%n", n, dist, genMs, args[4]);
+    }
+}